@@ -1,10 +1,13 @@
 package com.techcorp.employee.config;
 
 import com.google.gson.Gson;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.net.http.HttpClient;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 @Configuration
 public class AppConfig {
@@ -18,5 +21,20 @@ public class AppConfig {
     public Gson gson() {
         return new Gson();
     }
+
+    /**
+     * Osobna pula dla równoległych agregacji, żeby raporty nie zajmowały wspólnej
+     * puli {@link ForkJoinPool#commonPool()} (strumienie równoległe, CompletableFuture).
+     * Liczba wątków 0 oznacza liczbę procesorów.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool analyticsPool(@Value("${app.analytics.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("analytics-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
 }
 
@@ -0,0 +1,149 @@
+package com.techcorp.employee.config;
+
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.ImportSummary;
+import com.techcorp.employee.service.ApiService;
+import com.techcorp.employee.service.EmployeeService;
+import com.techcorp.employee.service.ImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Ładuje dane startowe. Import CSV i pobieranie z API działają równolegle na
+ * wątkach wirtualnych, ale zapis do magazynu odbywa się zawsze w kolejności
+ * CSV, XML, API - przy duplikatach wygrywa wcześniejsze źródło, niezależnie
+ * od tego, które skończy się pierwsze. Strony z API czekają na zakończenie
+ * CSV i XML. Dopóki runner działa, aplikacja nie zgłasza gotowości
+ * (zob. {@link ReadinessInterceptor}).
+ */
+@Component
+public class DataBootstrap implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DataBootstrap.class);
+
+    private final EmployeeService employeeService;
+    private final ImportService importService;
+    private final ApiService apiService;
+    private final List<Employee> xmlEmployees;
+
+    public DataBootstrap(EmployeeService employeeService,
+                         ImportService importService,
+                         ApiService apiService,
+                         @Qualifier("xmlEmployees") List<Employee> xmlEmployees) {
+        this.employeeService = employeeService;
+        this.importService = importService;
+        this.apiService = apiService;
+        this.xmlEmployees = xmlEmployees;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        long startNanos = System.nanoTime();
+        log.info("--- START IMPORTU DANYCH POCZĄTKOWYCH ---");
+        log.info("Początkowa liczba pracowników: {}", employeeService.getAllEmployees().size());
+
+        CountDownLatch earlierSourcesLoaded = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<ImportSummary> csv = executor.submit(this::importCsv);
+            Future<Integer> api = executor.submit(() -> importApi(earlierSourcesLoaded));
+
+            try {
+                awaitCsv(csv);
+                importXml();
+            } finally {
+                earlierSourcesLoaded.countDown();
+            }
+            awaitApi(api);
+        }
+
+        log.info("--- IMPORT DANYCH ZAKOŃCZONY w {} ms, łączna liczba pracowników: {} ---",
+                millisSince(startNanos), employeeService.getAllEmployees().size());
+    }
+
+    private ImportSummary importCsv() throws Exception {
+        long startNanos = System.nanoTime();
+        ImportSummary summary = importService.importFromCsv();
+        log.info("Źródło CSV: {} ms", millisSince(startNanos));
+        return summary;
+    }
+
+    private void awaitCsv(Future<ImportSummary> csv) throws InterruptedException {
+        try {
+            ImportSummary summary = csv.get();
+            log.info(summary.toString());
+            summary.getErrors().forEach(log::warn);
+            if (summary.getOmittedErrorCount() > 0) {
+                log.warn("Pominięto {} dalszych problemów importu (limit app.import.max-errors).",
+                        summary.getOmittedErrorCount());
+            }
+        } catch (ExecutionException e) {
+            log.error("Krytyczny błąd importu CSV: {}", e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private void importXml() {
+        long startNanos = System.nanoTime();
+        boolean[] inserted = employeeService.addEmployees(xmlEmployees);
+        int count = 0;
+        for (int i = 0; i < inserted.length; i++) {
+            if (inserted[i]) {
+                count++;
+            } else {
+                log.warn("Duplikat emaila z XML: {}", xmlEmployees.get(i).getEmail());
+            }
+        }
+        log.info("Źródło XML: {} ms, dodano {} pracowników zdefiniowanych w XML.", millisSince(startNanos), count);
+    }
+
+    // Strony są zapisywane dopiero po CSV i XML. Zwraca liczbę dodanych pracowników.
+    private int importApi(CountDownLatch earlierSourcesLoaded) throws Exception {
+        long startNanos = System.nanoTime();
+        int[] added = {0};
+        int fetched = apiService.fetchEmployeesFromApi(page -> {
+            awaitQuietly(earlierSourcesLoaded);
+            boolean[] inserted = employeeService.addEmployees(page);
+            for (int i = 0; i < inserted.length; i++) {
+                if (inserted[i]) {
+                    added[0]++;
+                } else {
+                    log.warn("Duplikat emaila z API: {}", page.get(i).getEmail());
+                }
+            }
+        });
+        log.info("Źródło API: {} ms, dodano {} z {} pracowników pobranych z API.",
+                millisSince(startNanos), added[0], fetched);
+        return added[0];
+    }
+
+    private void awaitApi(Future<Integer> api) throws InterruptedException {
+        try {
+            api.get();
+        } catch (ExecutionException e) {
+            log.error("Błąd pobierania danych z API: {}", e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import z API przerwany.", e);
+        }
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,65 @@
+package com.techcorp.employee.config;
+
+import com.techcorp.employee.controller.EmployeeJsonCache;
+import com.techcorp.employee.repository.EmployeeRepository;
+import com.techcorp.employee.service.EmployeeService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Mierniki stanu aplikacji: rozmiar magazynu i jego indeksów oraz liczniki obu cache.
+ * Czasy operacji EmployeeService mierzy {@code @Timed}, żądania HTTP - Spring Boot
+ * ({@code http.server.requests}); wszystko jest dostępne pod {@code /actuator/prometheus}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder storeMetrics(EmployeeRepository repository) {
+        return registry -> {
+            Gauge.builder("employee.store.size", repository, EmployeeRepository::size)
+                    .description("Liczba pracowników w magazynie")
+                    .register(registry);
+            Gauge.builder("employee.store.version", repository, EmployeeRepository::version)
+                    .description("Wersja danych magazynu")
+                    .register(registry);
+            for (String index : repository.indexSizes().keySet()) {
+                Gauge.builder("employee.store.index.size", repository, r -> r.indexSizes().getOrDefault(index, 0))
+                        .description("Liczba wpisów indeksu magazynu")
+                        .tag("index", index)
+                        .register(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder cacheMetrics(EmployeeService employeeService, EmployeeJsonCache jsonCache) {
+        return registry -> {
+            for (String counter : new String[]{"hits", "misses", "evictions", "invalidations"}) {
+                FunctionCounter.builder("employee.cache." + counter, employeeService,
+                                s -> s.getStatisticsCacheMetrics().get(counter))
+                        .tag("cache", "statistics")
+                        .register(registry);
+            }
+            Gauge.builder("employee.cache.size", employeeService, s -> s.getStatisticsCacheMetrics().get("size"))
+                    .tag("cache", "statistics")
+                    .register(registry);
+
+            FunctionCounter.builder("employee.cache.hits", jsonCache, EmployeeJsonCache::getHits)
+                    .tag("cache", "employee_json")
+                    .register(registry);
+            FunctionCounter.builder("employee.cache.misses", jsonCache, EmployeeJsonCache::getMisses)
+                    .tag("cache", "employee_json")
+                    .register(registry);
+            FunctionCounter.builder("employee.cache.evictions", jsonCache, EmployeeJsonCache::getEvictions)
+                    .tag("cache", "employee_json")
+                    .register(registry);
+            Gauge.builder("employee.cache.size.bytes", jsonCache, EmployeeJsonCache::getSizeBytes)
+                    .tag("cache", "employee_json")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package com.techcorp.employee.config;
+
+import com.techcorp.employee.exception.ServiceNotReadyException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Odrzuca żądania do API (503), dopóki aplikacja nie zgłosi gotowości.
+ * Spring Boot przełącza {@link ReadinessState#ACCEPTING_TRAFFIC} dopiero po
+ * zakończeniu wszystkich runnerów, czyli po załadowaniu danych startowych.
+ * Kontekst bez {@link ApplicationAvailability} (np. testy wycinkowe) nie jest blokowany.
+ */
+public class ReadinessInterceptor implements HandlerInterceptor {
+
+    private final ObjectProvider<ApplicationAvailability> availability;
+
+    public ReadinessInterceptor(ObjectProvider<ApplicationAvailability> availability) {
+        this.availability = availability;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ApplicationAvailability current = availability.getIfAvailable();
+        if (current != null && current.getReadinessState() != ReadinessState.ACCEPTING_TRAFFIC) {
+            throw new ServiceNotReadyException("Trwa ładowanie danych startowych. Spróbuj ponownie za chwilę.");
+        }
+        return true;
+    }
+}
@@ -0,0 +1,22 @@
+package com.techcorp.employee.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<ApplicationAvailability> availability;
+
+    public WebConfig(ObjectProvider<ApplicationAvailability> availability) {
+        this.availability = availability;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReadinessInterceptor(availability)).addPathPatterns("/api/**");
+    }
+}
@@ -1,38 +1,110 @@
 package com.techcorp.employee.controller;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techcorp.employee.dto.BatchItemResultDTO;
+import com.techcorp.employee.dto.BatchItemStatus;
+import com.techcorp.employee.dto.BatchResultDTO;
 import com.techcorp.employee.dto.EmployeeDTO;
+import com.techcorp.employee.dto.EmployeePageDTO;
+import com.techcorp.employee.dto.StatusChangeDTO;
 import com.techcorp.employee.exception.DuplicateEmailException;
 import com.techcorp.employee.exception.EmployeeNotFoundException;
 import com.techcorp.employee.exception.InvalidDataException;
 import com.techcorp.employee.model.Employee;
 import com.techcorp.employee.model.EmploymentStatus;
 import com.techcorp.employee.service.EmployeeService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/employees")
 public class EmployeeController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
+    private static final Map<String, Function<Employee, Object>> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put("firstName", Employee::getFirstName);
+        FIELDS.put("lastName", Employee::getLastName);
+        FIELDS.put("email", Employee::getEmail);
+        FIELDS.put("company", Employee::getCompany);
+        FIELDS.put("position", Employee::getPosition);
+        FIELDS.put("salary", Employee::getSalary);
+        FIELDS.put("status", Employee::getStatus);
+    }
+
     private final EmployeeService employeeService;
+    private final JsonFactory jsonFactory;
+    private final EmployeeJsonCache jsonCache;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxBatchSize;
 
-    public EmployeeController(EmployeeService employeeService) {
+    public EmployeeController(EmployeeService employeeService,
+                              ObjectMapper objectMapper,
+                              EmployeeJsonCache jsonCache,
+                              @Value("${app.pagination.default-size:100}") int defaultPageSize,
+                              @Value("${app.pagination.max-size:1000}") int maxPageSize,
+                              @Value("${app.batch.max-size:10000}") int maxBatchSize) {
         this.employeeService = employeeService;
+        this.jsonFactory = objectMapper.getFactory();
+        this.jsonCache = jsonCache;
+        this.maxPageSize = Math.max(1, maxPageSize);
+        this.defaultPageSize = Math.min(Math.max(1, defaultPageSize), this.maxPageSize);
+        this.maxBatchSize = maxBatchSize;
     }
 
+    /**
+     * Bez parametrów stronicowania zwraca pełną listę (dotychczasowe zachowanie).
+     * Z {@code limit}, {@code cursor} lub {@code fields} zwraca {@link EmployeePageDTO}:
+     * stronę w kolejności emaili i kursor następnej strony.
+     * {@code sort=lastName} albo zakres {@code lastNameFrom}/{@code lastNameTo} (przedrostki
+     * nazwisk, np. A–C) przełącza listę i strony na kolejność nazwisk.
+     */
     @GetMapping
-    public ResponseEntity<List<EmployeeDTO>> getEmployees(
-            @RequestParam(required = false) String company) {
+    public ResponseEntity<?> getEmployees(
+            @RequestParam(required = false) String company,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String lastNameFrom,
+            @RequestParam(required = false) String lastNameTo) {
+
+        boolean byLastName = isLastNameOrder(sort, lastNameFrom, lastNameTo);
+        if (limit != null || cursor != null || fields != null) {
+            return ResponseEntity.ok(byLastName
+                    ? getEmployeesPageByLastName(company, limit, cursor, fields, lastNameFrom, lastNameTo)
+                    : getEmployeesPage(company, limit, cursor, fields));
+        }
 
         List<Employee> employees;
-        if (company != null && !company.isBlank()) {
+        if (byLastName) {
+            employees = employeeService.getEmployeesByLastNameRange(lastNameFrom, lastNameTo, company);
+        } else if (company != null && !company.isBlank()) {
             employees = employeeService.filterByCompany(company);
         } else {
             employees = employeeService.getAllEmployees();
@@ -42,20 +114,190 @@ public class EmployeeController {
         return ResponseEntity.ok(dtos);
     }
 
+    private static boolean isLastNameOrder(String sort, String lastNameFrom, String lastNameTo) {
+        boolean range = lastNameFrom != null || lastNameTo != null;
+        if (sort == null || sort.isBlank()) {
+            return range;
+        }
+        if (sort.equals("lastName")) {
+            return true;
+        }
+        if (!sort.equals("email")) {
+            throw new InvalidDataException("Nieznane sortowanie: " + sort + ". Dostępne: email, lastName");
+        }
+        if (range) {
+            throw new InvalidDataException("Zakres nazwisk wymaga sortowania po nazwisku (sort=lastName).");
+        }
+        return false;
+    }
+
+    private EmployeePageDTO getEmployeesPage(String company, Integer limit, String cursor, String fields) {
+        int pageSize = pageSize(limit);
+        List<String> projection = parseFields(fields);
+
+        // Pobieramy jeden element więcej, żeby wiedzieć, czy istnieje następna strona.
+        List<Employee> employees = employeeService.getEmployeesPage(decodeCursor(cursor), pageSize + 1, company);
+        String nextCursor = null;
+        if (employees.size() > pageSize) {
+            employees = employees.subList(0, pageSize);
+            nextCursor = encodeCursor(employees.get(pageSize - 1).getEmail());
+        }
+        return toPage(employees, nextCursor, pageSize, projection);
+    }
+
+    private EmployeePageDTO getEmployeesPageByLastName(String company, Integer limit, String cursor, String fields,
+                                                       String lastNameFrom, String lastNameTo) {
+        int pageSize = pageSize(limit);
+        List<String> projection = parseFields(fields);
+
+        String[] after = decodeLastNameCursor(cursor);
+        List<Employee> employees = employeeService.getEmployeesPageByLastName(after[0], after[1], pageSize + 1,
+                lastNameFrom, lastNameTo, company);
+        String nextCursor = null;
+        if (employees.size() > pageSize) {
+            employees = employees.subList(0, pageSize);
+            Employee last = employees.get(pageSize - 1);
+            nextCursor = encodeCursor((last.getLastName() == null ? "" : last.getLastName()) + '\n' + last.getEmail());
+        }
+        return toPage(employees, nextCursor, pageSize, projection);
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit != null && limit <= 0) {
+            throw new InvalidDataException("Parametr limit musi być dodatni.");
+        }
+        return limit == null ? defaultPageSize : Math.min(limit, maxPageSize);
+    }
+
+    private EmployeePageDTO toPage(List<Employee> employees, String nextCursor, int pageSize, List<String> projection) {
+        List<?> items = projection == null
+                ? employees.stream().map(this::toDTO).collect(Collectors.toList())
+                : employees.stream().map(employee -> project(employee, projection)).collect(Collectors.toList());
+        return new EmployeePageDTO(items, nextCursor, pageSize);
+    }
+
+    private static List<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        List<String> projection = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!FIELDS.containsKey(name)) {
+                throw new InvalidDataException("Nieznane pole: " + name + ". Dostępne: " + String.join(", ", FIELDS.keySet()));
+            }
+            if (!projection.contains(name)) {
+                projection.add(name);
+            }
+        }
+        return projection;
+    }
+
+    private static Map<String, Object> project(Employee employee, List<String> projection) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        for (String field : projection) {
+            item.put(field, FIELDS.get(field).apply(employee));
+        }
+        return item;
+    }
+
+    // Kursor to pozycja ostatniego elementu strony (email, w kolejności nazwisk "nazwisko\nemail")
+    // małymi literami w Base64URL.
+    private static String encodeCursor(String position) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(position.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDataException("Nieprawidłowy kursor: " + cursor);
+        }
+    }
+
+    // Email nie zawiera nowej linii, więc separatorem jest ostatnia.
+    private static String[] decodeLastNameCursor(String cursor) {
+        String decoded = decodeCursor(cursor);
+        if (decoded == null) {
+            return new String[2];
+        }
+        int separator = decoded.lastIndexOf('\n');
+        if (separator < 0) {
+            throw new InvalidDataException("Nieprawidłowy kursor: " + cursor);
+        }
+        return new String[]{decoded.substring(0, separator), decoded.substring(separator + 1)};
+    }
+
+    /**
+     * Eksport wszystkich pracowników jako NDJSON (jeden obiekt JSON na linię).
+     * Rekordy są zapisywane generatorem Jacksona wprost z magazynu, bez listy i DTO;
+     * zapis blokuje się, gdy klient nie nadąża z odbiorem, więc pamięć pozostaje stała.
+     */
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportEmployees(
+            @RequestParam(required = false) String company,
+            @RequestParam(required = false) String status) {
+
+        EmploymentStatus statusFilter = status == null || status.isBlank() ? null : parseStatus(status);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+                // domyślny separator " " przesunąłby każdą kolejną linię NDJSON o spację
+                generator.setRootValueSeparator(null);
+                employeeService.exportEmployees(company, statusFilter, employee -> writeNdjsonLine(generator, employee));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    private static void writeNdjsonLine(JsonGenerator generator, Employee employee) {
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("firstName", employee.getFirstName());
+            generator.writeStringField("lastName", employee.getLastName());
+            generator.writeStringField("email", employee.getEmail());
+            generator.writeStringField("company", employee.getCompany());
+            generator.writeStringField("position", employee.getPosition() == null ? null : employee.getPosition().name());
+            generator.writeNumberField("salary", employee.getSalary());
+            generator.writeStringField("status", employee.getStatus() == null ? null : employee.getStatus().name());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @GetMapping("/{email}")
-    public ResponseEntity<EmployeeDTO> getEmployeeByEmail(@PathVariable String email) {
+    public ResponseEntity<byte[]> getEmployeeByEmail(@PathVariable String email, WebRequest request) {
         Employee employee = employeeService.findEmployeeByEmail(email)
                 .orElseThrow(() -> new EmployeeNotFoundException("Nie znaleziono pracownika o emailu: " + email));
-        return ResponseEntity.ok(toDTO(employee));
+        // ETag to identyfikator magazynu i wersja rekordu; przy zgodnym If-None-Match zwracamy 304 bez budowania DTO.
+        String etag = eTag(employee);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        // Gotowe bajty JSON danej wersji z cache - bez DTO i serializacji przy każdym żądaniu.
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .body(jsonCache.get(employee, this::toDTO));
     }
 
     @GetMapping("/status/{status}")
     public ResponseEntity<List<EmployeeDTO>> getEmployeesByStatus(@PathVariable String status) {
+        List<Employee> employees = employeeService.findEmployeesByStatus(parseStatus(status));
+        List<EmployeeDTO> dtos = employees.stream().map(this::toDTO).collect(Collectors.toList());
+        return ResponseEntity.ok(dtos);
+    }
+
+    private static EmploymentStatus parseStatus(String status) {
         try {
-            EmploymentStatus statusEnum = EmploymentStatus.valueOf(status.toUpperCase());
-            List<Employee> employees = employeeService.findEmployeesByStatus(statusEnum);
-            List<EmployeeDTO> dtos = employees.stream().map(this::toDTO).collect(Collectors.toList());
-            return ResponseEntity.ok(dtos);
+            return EmploymentStatus.valueOf(status.toUpperCase());
         } catch (IllegalArgumentException e) {
             throw new InvalidDataException("Nieprawidłowy status: " + status + ". Dostępne: ACTIVE, ON_LEAVE, TERMINATED");
         }
@@ -84,7 +326,7 @@ public class EmployeeController {
         Employee employeeModel = toModel(employeeDTO);
         Employee updatedEmployee = employeeService.updateEmployee(email, employeeModel);
 
-        return ResponseEntity.ok(toDTO(updatedEmployee));
+        return ResponseEntity.ok().eTag(eTag(updatedEmployee)).body(toDTO(updatedEmployee));
     }
 
     @PatchMapping("/{email}/status")
@@ -97,18 +339,125 @@ public class EmployeeController {
         try {
             EmploymentStatus newStatus = EmploymentStatus.valueOf(statusStr.toUpperCase());
             Employee updatedEmployee = employeeService.updateEmployeeStatus(email, newStatus);
-            return ResponseEntity.ok(toDTO(updatedEmployee));
+            return ResponseEntity.ok().eTag(eTag(updatedEmployee)).body(toDTO(updatedEmployee));
         } catch (IllegalArgumentException e) {
             throw new InvalidDataException("Nieprawidłowy status: " + statusStr + ". Dostępne: ACTIVE, ON_LEAVE, TERMINATED");
         }
     }
 
+    /**
+     * Wsadowe dodawanie: cała paczka jest zapisywana w jednej sekcji zapisu magazynu,
+     * a odpowiedź zawiera wynik każdego elementu (CREATED, DUPLICATE, INVALID).
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResultDTO> createEmployees(@RequestBody List<EmployeeDTO> employeeDTOs) {
+        BatchItemResultDTO[] results = new BatchItemResultDTO[employeeDTOs.size()];
+        List<Integer> indexes = new ArrayList<>();
+        List<Employee> employees = toValidModels(employeeDTOs, results, indexes);
+
+        boolean[] inserted = employeeService.addEmployees(employees);
+        for (int i = 0; i < inserted.length; i++) {
+            String email = employees.get(i).getEmail();
+            results[indexes.get(i)] = inserted[i]
+                    ? new BatchItemResultDTO(indexes.get(i), email, BatchItemStatus.CREATED, null)
+                    : new BatchItemResultDTO(indexes.get(i), email, BatchItemStatus.DUPLICATE, "Pracownik o emailu " + email + " już istnieje.");
+        }
+        return ResponseEntity.ok(new BatchResultDTO(Arrays.asList(results)));
+    }
+
+    /**
+     * Wsadowy upsert: istniejący pracownicy są zastępowani, brakujący dodawani (CREATED, UPDATED, INVALID).
+     */
+    @PutMapping("/batch")
+    public ResponseEntity<BatchResultDTO> upsertEmployees(@RequestBody List<EmployeeDTO> employeeDTOs) {
+        BatchItemResultDTO[] results = new BatchItemResultDTO[employeeDTOs.size()];
+        List<Integer> indexes = new ArrayList<>();
+        List<Employee> employees = toValidModels(employeeDTOs, results, indexes);
+
+        boolean[] created = employeeService.upsertEmployees(employees);
+        for (int i = 0; i < created.length; i++) {
+            results[indexes.get(i)] = new BatchItemResultDTO(indexes.get(i), employees.get(i).getEmail(),
+                    created[i] ? BatchItemStatus.CREATED : BatchItemStatus.UPDATED, null);
+        }
+        return ResponseEntity.ok(new BatchResultDTO(Arrays.asList(results)));
+    }
+
+    /**
+     * Wsadowa zmiana statusów, np. {@code [{"email":"jan@test.com","status":"ON_LEAVE"}]}
+     * (UPDATED, NOT_FOUND, INVALID).
+     */
+    @PatchMapping("/batch/status")
+    public ResponseEntity<BatchResultDTO> updateEmployeeStatuses(@RequestBody List<StatusChangeDTO> changes) {
+        checkBatchSize(changes.size());
+        BatchItemResultDTO[] results = new BatchItemResultDTO[changes.size()];
+        List<Integer> indexes = new ArrayList<>();
+        List<String> emails = new ArrayList<>();
+        List<EmploymentStatus> statuses = new ArrayList<>();
+
+        for (int i = 0; i < changes.size(); i++) {
+            StatusChangeDTO change = changes.get(i);
+            String email = change == null ? null : change.getEmail();
+            if (email == null || email.isBlank()) {
+                results[i] = new BatchItemResultDTO(i, email, BatchItemStatus.INVALID, "Brak emaila.");
+            } else if (change.getStatus() == null) {
+                results[i] = new BatchItemResultDTO(i, email, BatchItemStatus.INVALID, "Brak statusu.");
+            } else {
+                try {
+                    statuses.add(EmploymentStatus.valueOf(change.getStatus().toUpperCase()));
+                    emails.add(email);
+                    indexes.add(i);
+                } catch (IllegalArgumentException e) {
+                    results[i] = new BatchItemResultDTO(i, email, BatchItemStatus.INVALID, "Nieprawidłowy status: " + change.getStatus());
+                }
+            }
+        }
+
+        Employee[] updated = employeeService.updateEmployeeStatuses(emails, statuses);
+        for (int i = 0; i < updated.length; i++) {
+            results[indexes.get(i)] = updated[i] != null
+                    ? new BatchItemResultDTO(indexes.get(i), emails.get(i), BatchItemStatus.UPDATED, null)
+                    : new BatchItemResultDTO(indexes.get(i), emails.get(i), BatchItemStatus.NOT_FOUND,
+                            "Nie znaleziono pracownika o emailu: " + emails.get(i));
+        }
+        return ResponseEntity.ok(new BatchResultDTO(Arrays.asList(results)));
+    }
+
+    // Niepoprawne elementy dostają od razu wynik INVALID; pozostałe są zwracane razem z ich indeksami w żądaniu.
+    private List<Employee> toValidModels(List<EmployeeDTO> employeeDTOs, BatchItemResultDTO[] results, List<Integer> indexes) {
+        checkBatchSize(employeeDTOs.size());
+        List<Employee> employees = new ArrayList<>(employeeDTOs.size());
+        for (int i = 0; i < employeeDTOs.size(); i++) {
+            EmployeeDTO dto = employeeDTOs.get(i);
+            String email = dto == null ? null : dto.getEmail();
+            if (email == null || email.isBlank()) {
+                results[i] = new BatchItemResultDTO(i, email, BatchItemStatus.INVALID, "Brak emaila.");
+            } else if (dto.getPosition() == null) {
+                results[i] = new BatchItemResultDTO(i, email, BatchItemStatus.INVALID, "Brak stanowiska.");
+            } else {
+                employees.add(toModel(dto));
+                indexes.add(i);
+            }
+        }
+        return employees;
+    }
+
+    private void checkBatchSize(int size) {
+        if (size > maxBatchSize) {
+            throw new InvalidDataException("Zbyt duża paczka: " + size + " elementów (maksymalnie " + maxBatchSize + ").");
+        }
+    }
+
     @DeleteMapping("/{email}")
     public ResponseEntity<Void> deleteEmployee(@PathVariable String email) throws EmployeeNotFoundException {
         employeeService.deleteEmployee(email);
         return ResponseEntity.noContent().build();
     }
 
+    // Wersje rekordów zaczynają się od nowa po restarcie - bez identyfikatora magazynu stary ETag mógłby pasować.
+    private String eTag(Employee employee) {
+        return "\"" + employeeService.getDataEpoch() + "-" + employee.getVersion() + "\"";
+    }
+
     private EmployeeDTO toDTO(Employee employee) {
         return new EmployeeDTO(
                 employee.getFirstName(),
@@ -122,15 +471,14 @@ public class EmployeeController {
     }
 
     private Employee toModel(EmployeeDTO dto) {
-        Employee emp = new Employee(
+        return new Employee(
                 dto.getFirstName(),
                 dto.getLastName(),
                 dto.getEmail(),
                 dto.getCompany(),
                 dto.getPosition(),
-                dto.getSalary()
+                dto.getSalary(),
+                dto.getStatus() != null ? dto.getStatus() : EmploymentStatus.ACTIVE
         );
-        emp.setStatus(dto.getStatus() != null ? dto.getStatus() : EmploymentStatus.ACTIVE);
-        return emp;
     }
 }
\ No newline at end of file
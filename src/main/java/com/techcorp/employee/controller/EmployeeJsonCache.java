@@ -0,0 +1,140 @@
+package com.techcorp.employee.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.repository.EmployeeChangeListener;
+import com.techcorp.employee.service.EmployeeService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Cache gotowego JSON-a pojedynczych pracowników, ograniczony łącznym rozmiarem bajtów.
+ * Odczyt trafienia nie bierze blokady: sprawdza wersję wpisu i ustawia mu bit użycia.
+ * Usuwanie odbywa się tylko przy wstawianiu, algorytmem zegarowym (przybliżone LRU) -
+ * wpis z ustawionym bitem dostaje drugą szansę, a bez niego jest wyrzucany.
+ * Wpis pamięta wersję pracownika, więc bajty starszej wersji nigdy nie zostaną zwrócone;
+ * zmiany w magazynie dodatkowo usuwają wpis od razu, żeby nie zajmował miejsca.
+ */
+@Component
+public class EmployeeJsonCache implements EmployeeChangeListener {
+
+    private static final class Entry {
+        final String key;
+        final long version;
+        final byte[] json;
+        volatile boolean referenced;
+
+        Entry(String key, long version, byte[] json) {
+            this.key = key;
+            this.version = version;
+            this.json = json;
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Kolejka wskazówki zegara; wpisy zastąpione albo usunięte zostają w niej do najbliższego przejścia.
+    private final Deque<Entry> clock = new ArrayDeque<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile long sizeBytes;
+    private volatile long evictions;
+
+    public EmployeeJsonCache(ObjectMapper objectMapper,
+                             EmployeeService employeeService,
+                             @Value("${app.employee-json-cache.max-bytes:16777216}") long maxBytes) {
+        this.objectMapper = objectMapper;
+        this.maxBytes = maxBytes;
+        employeeService.addChangeListener(this);
+    }
+
+    /**
+     * Zwraca JSON wersji {@code employee}; przy braku w cache serializuje wynik {@code toDto}.
+     */
+    public byte[] get(Employee employee, Function<Employee, ?> toDto) {
+        String key = key(employee.getEmail());
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version == employee.getVersion()) {
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            hits.increment();
+            return entry.json;
+        }
+        misses.increment();
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(toDto.apply(employee));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (json.length <= maxBytes) {
+            put(new Entry(key, employee.getVersion(), json));
+        }
+        return json;
+    }
+
+    private synchronized void put(Entry entry) {
+        Entry previous = entries.get(entry.key);
+        if (previous != null && previous.version > entry.version) {
+            return;
+        }
+        entries.put(entry.key, entry);
+        sizeBytes += entry.json.length - (previous != null ? previous.json.length : 0);
+        clock.addLast(entry);
+
+        while (sizeBytes > maxBytes && !clock.isEmpty()) {
+            Entry candidate = clock.pollFirst();
+            if (!isCurrent(candidate)) {
+                continue;
+            }
+            if (candidate.referenced) {
+                candidate.referenced = false;
+                clock.addLast(candidate);
+                continue;
+            }
+            entries.remove(candidate.key, candidate);
+            sizeBytes -= candidate.json.length;
+            evictions++;
+        }
+        if (clock.size() > 2 * entries.size() + 16) {
+            clock.removeIf(candidate -> !isCurrent(candidate));
+        }
+    }
+
+    private boolean isCurrent(Entry entry) {
+        return entries.get(entry.key) == entry;
+    }
+
+    @Override
+    public void onChange(Employee before, Employee after) {
+        Employee changed = before != null ? before : after;
+        synchronized (this) {
+            Entry removed = entries.remove(key(changed.getEmail()));
+            if (removed != null) {
+                sizeBytes -= removed.json.length;
+            }
+        }
+    }
+
+    private static String key(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public long getEvictions() { return evictions; }
+    public long getSizeBytes() { return sizeBytes; }
+}
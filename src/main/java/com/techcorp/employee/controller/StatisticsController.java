@@ -1,11 +1,21 @@
 package com.techcorp.employee.controller;
 
 import com.techcorp.employee.dto.CompanyStatisticsDTO;
+import com.techcorp.employee.dto.SalaryPercentilesDTO;
+import com.techcorp.employee.dto.SalaryRankDTO;
 import com.techcorp.employee.exception.EmployeeNotFoundException;
+import com.techcorp.employee.exception.InvalidDataException;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.Position;
 import com.techcorp.employee.service.EmployeeService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -13,36 +23,144 @@ import java.util.Map;
 public class StatisticsController {
 
     private final EmployeeService employeeService;
+    private final int maxLimit;
 
-    public StatisticsController(EmployeeService employeeService) {
+    public StatisticsController(EmployeeService employeeService,
+                                @Value("${app.pagination.max-size:1000}") int maxLimit) {
         this.employeeService = employeeService;
+        this.maxLimit = Math.max(1, maxLimit);
     }
 
+    // Statystyki zależą od wszystkich danych, więc ETagiem jest globalna wersja magazynu
+    // poprzedzona identyfikatorem jego instancji (wersje po restarcie liczą się od zera).
+    // Przy zgodnym If-None-Match zwracamy 304 bez liczenia statystyk.
+
     @GetMapping("/salary/average")
     public ResponseEntity<Map<String, Double>> getAverageSalary(
-            @RequestParam(required = false) String company) {
+            @RequestParam(required = false) String company, WebRequest request) {
 
+        String etag = currentETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         double avg = employeeService.calculateAverageSalary(company);
-        return ResponseEntity.ok(Map.of("averageSalary", avg));
+        return ResponseEntity.ok().eTag(etag).body(Map.of("averageSalary", avg));
     }
 
     @GetMapping("/company/{companyName}")
-    public ResponseEntity<CompanyStatisticsDTO> getCompanyStatistics(@PathVariable String companyName) {
-        CompanyStatisticsDTO stats = employeeService.getCompanyStatistics().get(companyName);
+    public ResponseEntity<CompanyStatisticsDTO> getCompanyStatistics(@PathVariable String companyName, WebRequest request) {
+        String etag = currentETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        CompanyStatisticsDTO stats = employeeService.getCompanyStatistics(companyName)
+                .orElseThrow(() -> new EmployeeNotFoundException("Nie znaleziono statystyk dla firmy: " + companyName));
+        return ResponseEntity.ok().eTag(etag).body(stats);
+    }
+
+    /**
+     * Ranking pensji: globalny albo w obrębie firmy ({@code company}), najwyżej {@code limit} pozycji.
+     */
+    @GetMapping("/salary/top")
+    public ResponseEntity<List<SalaryRankDTO>> getTopEarners(
+            @RequestParam(required = false) String company,
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest request) {
+
+        if (limit <= 0) {
+            throw new InvalidDataException("Parametr limit musi być dodatni.");
+        }
+        String etag = currentETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<Employee> top = employeeService.getTopEarners(company, Math.min(limit, maxLimit));
+        if (top.isEmpty() && company != null && !company.isBlank()) {
+            throw new EmployeeNotFoundException("Nie znaleziono statystyk dla firmy: " + company);
+        }
+        List<SalaryRankDTO> ranking = new ArrayList<>(top.size());
+        for (Employee employee : top) {
+            ranking.add(new SalaryRankDTO(ranking.size() + 1, employee.getEmail(), employee.getFullName(),
+                    employee.getCompany(), employee.getPosition(), employee.getSalary()));
+        }
+        return ResponseEntity.ok().eTag(etag).body(ranking);
+    }
 
-        if (stats == null) {
-            throw new EmployeeNotFoundException("Nie znaleziono statystyk dla firmy: " + companyName);
+    /**
+     * Percentyle pensji (domyślnie p50, p90, p99) dla stanowiska albo dla każdego zajętego stanowiska.
+     */
+    @GetMapping("/salary/percentiles")
+    public ResponseEntity<List<SalaryPercentilesDTO>> getSalaryPercentiles(
+            @RequestParam(required = false) String position,
+            @RequestParam(defaultValue = "50,90,99") String p,
+            WebRequest request) {
+
+        Position positionFilter = position == null || position.isBlank() ? null : parsePosition(position);
+        double[] percentiles = parsePercentiles(p);
+        String etag = currentETag();
+        if (request.checkNotModified(etag)) {
+            return null;
         }
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok().eTag(etag).body(employeeService.getSalaryPercentiles(positionFilter, percentiles));
+    }
+
+    private static Position parsePosition(String position) {
+        try {
+            return Position.valueOf(position.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDataException("Nieprawidłowe stanowisko: " + position + ". Dostępne: " + Arrays.toString(Position.values()));
+        }
+    }
+
+    private static double[] parsePercentiles(String percentiles) {
+        String[] parts = percentiles.split(",");
+        double[] result = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                result[i] = Double.parseDouble(parts[i].trim());
+            } catch (NumberFormatException e) {
+                result[i] = Double.NaN;
+            }
+            if (!(result[i] > 0 && result[i] <= 100)) {
+                throw new InvalidDataException("Nieprawidłowy percentyl: " + parts[i].trim() + ". Oczekiwano liczby z przedziału (0, 100].");
+            }
+        }
+        return result;
     }
 
     @GetMapping("/positions")
-    public ResponseEntity<Map<String, Long>> getPositionCounts() {
-        return ResponseEntity.ok(employeeService.getEmployeeCountByPositionString());
+    public ResponseEntity<Map<String, Long>> getPositionCounts(WebRequest request) {
+        String etag = currentETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(employeeService.getEmployeeCountByPositionString());
+    }
+
+    @GetMapping("/positions/salary/average")
+    public ResponseEntity<Map<Position, Double>> getAverageSalaryByPosition(WebRequest request) {
+        String etag = currentETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(employeeService.getAverageSalaryByPosition());
     }
 
     @GetMapping("/status")
-    public ResponseEntity<Map<String, Long>> getStatusCounts() {
-        return ResponseEntity.ok(employeeService.getEmployeeCountByStatusString());
+    public ResponseEntity<Map<String, Long>> getStatusCounts(WebRequest request) {
+        String etag = currentETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(employeeService.getEmployeeCountByStatusString());
+    }
+
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Long>> getCacheMetrics() {
+        return ResponseEntity.ok(employeeService.getStatisticsCacheMetrics());
+    }
+
+    private String currentETag() {
+        return "\"" + employeeService.getDataEpoch() + "-" + employeeService.getDataVersion() + "\"";
     }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.techcorp.employee.dto;
+
+public class BatchItemResultDTO {
+    private final int index;
+    private final String email;
+    private final BatchItemStatus status;
+    private final String message;
+
+    public BatchItemResultDTO(int index, String email, BatchItemStatus status, String message) {
+        this.index = index;
+        this.email = email;
+        this.status = status;
+        this.message = message;
+    }
+
+    public int getIndex() { return index; }
+    public String getEmail() { return email; }
+    public BatchItemStatus getStatus() { return status; }
+    public String getMessage() { return message; }
+}
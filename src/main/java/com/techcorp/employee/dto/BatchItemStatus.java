@@ -0,0 +1,9 @@
+package com.techcorp.employee.dto;
+
+public enum BatchItemStatus {
+    CREATED,
+    UPDATED,
+    DUPLICATE,
+    NOT_FOUND,
+    INVALID
+}
@@ -0,0 +1,23 @@
+package com.techcorp.employee.dto;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wynik operacji wsadowej: wynik każdego elementu w kolejności żądania oraz liczniki wyników.
+ */
+public class BatchResultDTO {
+    private final List<BatchItemResultDTO> results;
+    private final Map<BatchItemStatus, Integer> summary = new EnumMap<>(BatchItemStatus.class);
+
+    public BatchResultDTO(List<BatchItemResultDTO> results) {
+        this.results = results;
+        for (BatchItemResultDTO result : results) {
+            summary.merge(result.getStatus(), 1, Integer::sum);
+        }
+    }
+
+    public List<BatchItemResultDTO> getResults() { return results; }
+    public Map<BatchItemStatus, Integer> getSummary() { return summary; }
+}
@@ -0,0 +1,24 @@
+package com.techcorp.employee.dto;
+
+import java.util.List;
+
+/**
+ * Strona wyników. {@code items} to {@link EmployeeDTO} albo, przy projekcji
+ * {@code fields=}, mapy z wybranymi polami. {@code nextCursor} jest {@code null}
+ * na ostatniej stronie.
+ */
+public class EmployeePageDTO {
+    private final List<?> items;
+    private final String nextCursor;
+    private final int limit;
+
+    public EmployeePageDTO(List<?> items, String nextCursor, int limit) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+
+    public List<?> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+    public int getLimit() { return limit; }
+}
@@ -0,0 +1,24 @@
+package com.techcorp.employee.dto;
+
+import com.techcorp.employee.model.Position;
+
+import java.util.Map;
+
+/**
+ * Percentyle pensji na stanowisku (metoda najbliższej rangi), np. {@code {"p50": 8000.0, "p90": 9500.0}}.
+ */
+public class SalaryPercentilesDTO {
+    private final Position position;
+    private final long employeeCount;
+    private final Map<String, Double> percentiles;
+
+    public SalaryPercentilesDTO(Position position, long employeeCount, Map<String, Double> percentiles) {
+        this.position = position;
+        this.employeeCount = employeeCount;
+        this.percentiles = percentiles;
+    }
+
+    public Position getPosition() { return position; }
+    public long getEmployeeCount() { return employeeCount; }
+    public Map<String, Double> getPercentiles() { return percentiles; }
+}
@@ -0,0 +1,31 @@
+package com.techcorp.employee.dto;
+
+import com.techcorp.employee.model.Position;
+
+/**
+ * Pozycja w rankingu pensji; {@code rank} liczy się od 1 (globalnie albo w obrębie firmy).
+ */
+public class SalaryRankDTO {
+    private final int rank;
+    private final String email;
+    private final String fullName;
+    private final String company;
+    private final Position position;
+    private final double salary;
+
+    public SalaryRankDTO(int rank, String email, String fullName, String company, Position position, double salary) {
+        this.rank = rank;
+        this.email = email;
+        this.fullName = fullName;
+        this.company = company;
+        this.position = position;
+        this.salary = salary;
+    }
+
+    public int getRank() { return rank; }
+    public String getEmail() { return email; }
+    public String getFullName() { return fullName; }
+    public String getCompany() { return company; }
+    public Position getPosition() { return position; }
+    public double getSalary() { return salary; }
+}
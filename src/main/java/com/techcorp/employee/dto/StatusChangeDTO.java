@@ -0,0 +1,19 @@
+package com.techcorp.employee.dto;
+
+public class StatusChangeDTO {
+    private String email;
+    private String status;
+
+    public StatusChangeDTO() {}
+
+    public StatusChangeDTO(String email, String status) {
+        this.email = email;
+        this.status = status;
+    }
+
+    public String getEmail() { return email; }
+    public String getStatus() { return status; }
+
+    public void setEmail(String email) { this.email = email; }
+    public void setStatus(String status) { this.status = status; }
+}
@@ -0,0 +1,7 @@
+package com.techcorp.employee.exception;
+
+public class ServiceNotReadyException extends RuntimeException {
+    public ServiceNotReadyException(String message) {
+        super(message);
+    }
+}
@@ -2,33 +2,50 @@ package com.techcorp.employee.model;
 
 import java.util.Objects;
 
-public class Employee {
-    private String firstName;
-    private String lastName;
-    private String email;
-    private String company;
-    private Position position;
-    private double salary;
-    private EmploymentStatus status; // NOWE POLE
+/**
+ * Niezmienna wersja danych pracownika. Zmiana danych oznacza utworzenie nowej
+ * wersji (np. {@link #withStatus}), którą magazyn podmienia atomowo.
+ * Przy zapisie magazyn nadaje wersji numer ({@link #getVersion}), używany m.in. jako ETag.
+ * Magazyn nadaje też identyfikator firmy ({@link #getCompanyId}) i podmienia nazwę
+ * na wspólną instancję, gdy zapis nazwy jest taki sam jak kanoniczny.
+ */
+public final class Employee {
+    public static final int NO_COMPANY = -1;
+
+    private final String firstName;
+    private final String lastName;
+    private final String email;
+    private final String company;
+    private final int companyId;
+    private final Position position;
+    private final double salary;
+    private final EmploymentStatus status;
+    private final long version;
 
     public Employee(String firstName, String lastName, String email, String company, Position position) {
-        this.firstName = firstName;
-        this.lastName = lastName;
-        this.email = email;
-        this.company = company;
-        this.position = position;
-        this.salary = this.position.getSalary();
-        this.status = EmploymentStatus.ACTIVE; // Domyślny status
+        this(firstName, lastName, email, company, position, position.getSalary());
     }
 
     public Employee(String firstName, String lastName, String email, String company, Position position, double salary) {
+        this(firstName, lastName, email, company, position, salary, EmploymentStatus.ACTIVE); // Domyślny status
+    }
+
+    public Employee(String firstName, String lastName, String email, String company, Position position, double salary,
+                    EmploymentStatus status) {
+        this(firstName, lastName, email, company, NO_COMPANY, position, salary, status, 0L);
+    }
+
+    private Employee(String firstName, String lastName, String email, String company, int companyId, Position position,
+                     double salary, EmploymentStatus status, long version) {
         this.firstName = firstName;
         this.lastName = lastName;
         this.email = email;
         this.company = company;
+        this.companyId = companyId;
         this.position = position;
         this.salary = salary;
-        this.status = EmploymentStatus.ACTIVE; // Domyślny status
+        this.status = status;
+        this.version = version;
     }
 
     public String getFirstName() { return this.firstName; }
@@ -36,16 +53,22 @@ public class Employee {
     public String getFullName() { return this.firstName + " " + this.lastName; }
     public String getEmail() { return this.email; }
     public String getCompany() { return this.company; }
+    public int getCompanyId() { return companyId; }
     public Position getPosition() { return this.position; }
     public double getSalary() { return this.salary; }
-    public EmploymentStatus getStatus() { return status; } // Nowy getter
+    public EmploymentStatus getStatus() { return status; }
+    public long getVersion() { return version; }
 
-    public void setFirstName(String firstName) { this.firstName = firstName; }
-    public void setLastName(String lastName) { this.lastName = lastName; }
-    public void setCompany(String company) { this.company = company; }
-    public void setPosition(Position position) { this.position = position; }
-    public void setSalary(double salary) { this.salary = salary; }
-    public void setStatus(EmploymentStatus status) { this.status = status; }
+    public Employee withStatus(EmploymentStatus status) {
+        return new Employee(firstName, lastName, email, company, companyId, position, salary, status, version);
+    }
+
+    /**
+     * Wersja zapisywana w magazynie: numer wersji i identyfikator firmy ze słownika magazynu.
+     */
+    public Employee stored(long version, String company, int companyId) {
+        return new Employee(firstName, lastName, email, company, companyId, position, salary, status, version);
+    }
 
     @Override
     public boolean equals(Object o) {
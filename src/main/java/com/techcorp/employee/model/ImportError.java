@@ -0,0 +1,35 @@
+package com.techcorp.employee.model;
+
+/**
+ * Zwarty opis problemu z wierszem importu. Treść komunikatu jest składana
+ * dopiero w {@link #message()}, więc import nie formatuje tekstów, których
+ * nikt nie przeczyta.
+ *
+ * @param value  wartość, której dotyczy problem (stanowisko, email, powód), albo {@code null}
+ * @param number pensja dla kodów dotyczących pensji
+ */
+public record ImportError(int lineNumber, ImportErrorCode code, String value, double number) {
+
+    public String field() {
+        return code.getField();
+    }
+
+    public String message() {
+        return switch (code) {
+            case TOO_FEW_COLUMNS -> String.format("Linia %d: Błąd danych - Za mało kolumn w wierszu (wymagane 6).", lineNumber);
+            case INVALID_NUMBER -> String.format("Linia %d: Błąd formatu liczby dla wynagrodzenia.", lineNumber);
+            case UNKNOWN_POSITION -> String.format("Linia %d: Błąd danych - Nieznane stanowisko: %s", lineNumber, value);
+            case NON_POSITIVE_SALARY -> String.format("Linia %d: Błąd danych - Wynagrodzenie musi być dodatnie: %s", lineNumber, number);
+            case DUPLICATE_EMAIL -> String.format("Linia %d: Duplikat emaila '%s'.", lineNumber, value);
+            case SALARY_BELOW_BASE -> String.format(
+                    "Linia %d: Ostrzeżenie - pensja (%.2f) niższa niż bazowa (%.2f) dla %s. Pracownik dodany.",
+                    lineNumber, number, Position.valueOf(value).getSalary(), value);
+            case UNEXPECTED -> String.format("Linia %d: Nieoczekiwany błąd - %s", lineNumber, value);
+        };
+    }
+
+    @Override
+    public String toString() {
+        return message();
+    }
+}
@@ -0,0 +1,26 @@
+package com.techcorp.employee.model;
+
+/**
+ * Rodzaj problemu z wierszem importu wraz z kolumną, której dotyczy
+ * ({@code null}, gdy dotyczy całego wiersza). Ostrzeżenia nie blokują dodania pracownika.
+ */
+public enum ImportErrorCode {
+    TOO_FEW_COLUMNS(null, false),
+    INVALID_NUMBER("salary", false),
+    UNKNOWN_POSITION("position", false),
+    NON_POSITIVE_SALARY("salary", false),
+    DUPLICATE_EMAIL("email", false),
+    SALARY_BELOW_BASE("salary", true),
+    UNEXPECTED(null, false);
+
+    private final String field;
+    private final boolean warning;
+
+    ImportErrorCode(String field, boolean warning) {
+        this.field = field;
+        this.warning = warning;
+    }
+
+    public String getField() { return field; }
+    public boolean isWarning() { return warning; }
+}
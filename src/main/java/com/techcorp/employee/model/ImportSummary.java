@@ -1,22 +1,74 @@
 package com.techcorp.employee.model;
 
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Wynik importu. Zapamiętanych jest najwyżej {@code app.import.max-errors} problemów,
+ * ale {@link #getErrorCounts()} liczy wszystkie. {@link #getErrors()} składa
+ * komunikaty dopiero przy odczycie.
+ */
 public class ImportSummary {
     private final int importedCount;
+    private final List<ImportError> errorRecords;
+    private final Map<ImportErrorCode, Long> errorCounts;
     private final List<String> errors;
+    private final long errorCount;
+    private final long processedRows;
+    private final long durationMillis;
 
-    public ImportSummary(int importedCount, List<String> errors) {
+    public ImportSummary(int importedCount, List<ImportError> errorRecords, Map<ImportErrorCode, Long> errorCounts,
+                         long processedRows, long durationMillis) {
         this.importedCount = importedCount;
-        this.errors = errors;
+        this.errorRecords = Collections.unmodifiableList(errorRecords);
+        this.errorCounts = Collections.unmodifiableMap(new EnumMap<>(errorCounts));
+        this.errors = new AbstractList<>() {
+            @Override
+            public String get(int index) {
+                return ImportSummary.this.errorRecords.get(index).message();
+            }
+
+            @Override
+            public int size() {
+                return ImportSummary.this.errorRecords.size();
+            }
+        };
+        this.errorCount = errorCounts.values().stream().mapToLong(Long::longValue).sum();
+        this.processedRows = processedRows;
+        this.durationMillis = durationMillis;
     }
 
     public int getImportedCount() { return importedCount; }
+    public List<ImportError> getErrorRecords() { return errorRecords; }
+    public Map<ImportErrorCode, Long> getErrorCounts() { return errorCounts; }
+    public long getProcessedRows() { return processedRows; }
+    public long getDurationMillis() { return durationMillis; }
+
+    /**
+     * Komunikaty zapamiętanych problemów, składane przy każdym odczycie elementu.
+     */
     public List<String> getErrors() { return errors; }
 
+    /**
+     * Liczba wszystkich problemów, także tych ponad limit zapamiętanych.
+     */
+    public long getErrorCount() { return errorCount; }
+
+    public long getOmittedErrorCount() {
+        return errorCount - errors.size();
+    }
+
+    public double getRowsPerSecond() {
+        return durationMillis > 0 ? processedRows * 1000.0 / durationMillis : processedRows;
+    }
+
     @Override
     public String toString() {
-        return String.format("Podsumowanie importu{zaimportowanych=%d, błędów=%d, błędy=%s}",
-                importedCount, errors.size(), errors.isEmpty() ? "Brak" : errors);
+        return String.format("Podsumowanie importu{zaimportowanych=%d, błędów=%d, wierszy=%d, czas=%d ms, wierszy/s=%.0f, błędy=%s}",
+                importedCount, errorCount, processedRows, durationMillis, getRowsPerSecond(),
+                errorCount == 0 ? "Brak" : errorCounts.isEmpty() ? errors : errorCounts);
     }
-}
\ No newline at end of file
+}
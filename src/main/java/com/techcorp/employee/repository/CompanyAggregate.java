@@ -0,0 +1,110 @@
+package com.techcorp.employee.repository;
+
+import com.techcorp.employee.dto.CompanyStatisticsDTO;
+import com.techcorp.employee.model.Employee;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Bieżące statystyki jednej firmy aktualizowane przy każdej zmianie pracownika.
+ * Pracownicy są trzymani w zbiorze posortowanym po pensji, więc usunięcie
+ * najlepiej zarabiającego nie wymaga ponownego przeglądania całej firmy.
+ *
+ * Zmiany wykonuje się pod blokadą zapisu repozytorium; czytelnicy bez blokady
+ * widzą wyłącznie ostatnią opublikowaną migawkę.
+ */
+class CompanyAggregate {
+
+    static final Comparator<Employee> BY_SALARY_DESC = Comparator
+            .comparingDouble(Employee::getSalary).reversed()
+            .thenComparing(e -> e.getEmail().toLowerCase(Locale.ROOT));
+
+    private final int companyId;
+    private final String companyName;
+    private final NavigableSet<Employee> bySalary = new TreeSet<>(BY_SALARY_DESC);
+    private double salarySum;
+    private volatile CompanyStatisticsDTO snapshot;
+
+    CompanyAggregate(int companyId, String companyName) {
+        this.companyId = companyId;
+        this.companyName = companyName;
+    }
+
+    void add(Employee employee) {
+        if (bySalary.add(employee)) {
+            salarySum += employee.getSalary();
+        }
+    }
+
+    void remove(Employee employee) {
+        if (bySalary.remove(employee)) {
+            salarySum = bySalary.isEmpty() ? 0.0 : salarySum - employee.getSalary();
+        }
+    }
+
+    boolean isEmpty() {
+        return bySalary.isEmpty();
+    }
+
+    int getCount() {
+        return bySalary.size();
+    }
+
+    double getSalarySum() {
+        return salarySum;
+    }
+
+    double getAverageSalary() {
+        return bySalary.isEmpty() ? 0.0 : salarySum / bySalary.size();
+    }
+
+    Employee getTopEarner() {
+        return bySalary.isEmpty() ? null : bySalary.first();
+    }
+
+    /**
+     * Pierwszych {@code limit} pracowników według pensji; wymaga blokady odczytu repozytorium.
+     */
+    List<Employee> getTopEarners(int limit) {
+        List<Employee> result = new ArrayList<>(Math.min(limit, bySalary.size()));
+        for (Employee employee : bySalary) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(employee);
+        }
+        return result;
+    }
+
+    int getCompanyId() {
+        return companyId;
+    }
+
+    String getCompanyName() {
+        return companyName;
+    }
+
+    CompanyStatisticsDTO getSnapshot() {
+        return snapshot;
+    }
+
+    void publishSnapshot() {
+        snapshot = toDTO();
+    }
+
+    private CompanyStatisticsDTO toDTO() {
+        Employee topEarner = getTopEarner();
+        return new CompanyStatisticsDTO(
+                companyName,
+                getCount(),
+                getAverageSalary(),
+                topEarner != null ? topEarner.getSalary() : 0.0,
+                topEarner != null ? topEarner.getFullName() : "Brak"
+        );
+    }
+}
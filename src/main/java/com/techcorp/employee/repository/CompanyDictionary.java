@@ -0,0 +1,88 @@
+package com.techcorp.employee.repository;
+
+import com.techcorp.employee.model.Employee;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Słownik firm magazynu: znormalizowana nazwa (bez spacji na brzegach i bez
+ * rozróżniania wielkości liter) → gęsty identyfikator {@code int} i kanoniczny
+ * zapis nazwy. Zapisani pracownicy niosą identyfikator ({@link Employee#getCompanyId}),
+ * więc filtry i grupowanie po firmie porównują liczby.
+ *
+ * Wpis żyje, dopóki firmę ma któryś z zapisanych pracowników: {@link #acquire}
+ * i {@link #release} liczą referencje, a po ostatniej wpis jest usuwany. Nazwy
+ * z zapytań ({@link #find}) niczego nie rejestrują, więc słownik nie rośnie ponad
+ * liczbę firm w magazynie. Identyfikatory nie są używane ponownie: czytelnik bez
+ * blokady, który zamienił nazwę na identyfikator, nie trafi na inną firmę.
+ *
+ * {@link #acquire} i {@link #release} woła magazyn pod blokadą zapisu,
+ * {@link #find} jest bezpieczne bez blokady.
+ */
+@Component
+public class CompanyDictionary {
+
+    static final class Entry {
+        final int id;
+        final String name;
+        int references;
+
+        Entry(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    private final Map<String, Entry> entriesByKey = new ConcurrentHashMap<>();
+    private final Map<Integer, Entry> entriesById = new HashMap<>();
+    private int nextId;
+
+    /**
+     * Wpis firmy {@code name} z jedną referencją więcej; pierwszy zapis nazwy staje się kanoniczny.
+     */
+    Entry acquire(String name) {
+        String key = normalize(name);
+        Entry entry = entriesByKey.get(key);
+        if (entry == null) {
+            entry = new Entry(nextId++, name);
+            entriesById.put(entry.id, entry);
+            entriesByKey.put(key, entry);
+        }
+        entry.references++;
+        return entry;
+    }
+
+    /**
+     * Oddaje referencję do firmy {@code id}; po ostatniej wpis znika.
+     */
+    void release(int id) {
+        Entry entry = entriesById.get(id);
+        if (--entry.references == 0) {
+            entriesById.remove(id);
+            entriesByKey.remove(normalize(entry.name));
+        }
+    }
+
+    /**
+     * Identyfikator firmy {@code name} albo {@link Employee#NO_COMPANY}, gdy nikt w niej nie pracuje.
+     */
+    public int find(String name) {
+        if (name == null) {
+            return Employee.NO_COMPANY;
+        }
+        Entry entry = entriesByKey.get(normalize(name));
+        return entry == null ? Employee.NO_COMPANY : entry.id;
+    }
+
+    public int size() {
+        return entriesByKey.size();
+    }
+
+    public static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
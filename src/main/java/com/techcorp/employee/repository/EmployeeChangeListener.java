@@ -0,0 +1,23 @@
+package com.techcorp.employee.repository;
+
+import com.techcorp.employee.model.Employee;
+
+/**
+ * Powiadomienia o zmianach w {@link EmployeeRepository}. Obie metody są wołane
+ * po zwolnieniu blokady zapisu magazynu, ale nigdy współbieżnie ze sobą i zawsze
+ * w kolejności sekcji zapisu: najpierw {@link #onChange} dla każdej zmiany sekcji,
+ * potem {@link #afterWrite()}. Zapisujący wątek wraca dopiero po dostarczeniu
+ * swojej sekcji. Wyjątek słuchacza jest logowany i nie przerywa zapisu ani
+ * powiadamiania pozostałych słuchaczy.
+ */
+public interface EmployeeChangeListener {
+
+    /**
+     * @param before poprzednia wersja albo {@code null} przy wstawieniu
+     * @param after  nowa wersja albo {@code null} przy usunięciu
+     */
+    void onChange(Employee before, Employee after);
+
+    default void afterWrite() {
+    }
+}
@@ -0,0 +1,825 @@
+package com.techcorp.employee.repository;
+
+import com.techcorp.employee.dto.CompanyStatisticsDTO;
+import com.techcorp.employee.dto.SalaryPercentilesDTO;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.EmploymentStatus;
+import com.techcorp.employee.model.Position;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Współbieżny magazyn pracowników w pamięci.
+ *
+ * Przechowywane są niezmienne wersje {@link Employee}; zapisy są serializowane
+ * blokadą zapisu {@link StampedLock}, więc każdy zapis podmienia wersję
+ * i aktualizuje wszystkie indeksy atomowo. Odczyt po emailu i statystyki firm
+ * nie biorą żadnej blokady, liczniki korzystają z odczytu optymistycznego,
+ * a kopie całych kubełków biorą współdzieloną blokadę odczytu.
+ * Stronicowanie czyta bez blokady indeksy uporządkowane po emailu i po nazwisku
+ * ({@link LastNameKey}), z filtrem firmy - takie same indeksy tej firmy; zapytania analityczne po pensjach - kolumnową kopię
+ * danych ({@link SalaryColumns}), a ranking i percentyle pensji - drzewa
+ * statystyk pozycyjnych ({@link SalaryRankIndex}), globalne i per stanowisko.
+ * Indeksy firm są kluczowane identyfikatorem z własnego {@link CompanyDictionary},
+ * nadawanym przy zapisie, więc filtry i grupowanie po firmie porównują liczby.
+ * Każda sekcja zapisu, która coś zmieniła, podbija globalną wersję magazynu;
+ * zapisane w niej wersje pracowników dostają ten sam numer. Blokada zapisu jest
+ * zwalniana zawsze, również po wyjątku, a słuchacze ({@link EmployeeChangeListener})
+ * dostają zmiany już po jej zwolnieniu.
+ */
+@Repository
+public class EmployeeRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeRepository.class);
+
+    private final StampedLock lock = new StampedLock();
+
+    private final Map<String, Employee> employees = new ConcurrentHashMap<>();
+    // Ten sam klucz co w employees, ale uporządkowany - podstawa stronicowania kursorem.
+    private final ConcurrentNavigableMap<String, Employee> employeesInEmailOrder = new ConcurrentSkipListMap<>();
+    // Kolejność (nazwisko, email) - sortowanie i zakresy nazwisk bez sortowania przy odczycie.
+    private final ConcurrentNavigableMap<LastNameKey, Employee> employeesInLastNameOrder = new ConcurrentSkipListMap<>();
+    private final Map<Integer, Set<Employee>> employeesByCompany = new HashMap<>();
+    // Te same uporządkowania osobno dla każdej firmy - strona z filtrem firmy bez przechodzenia całego indeksu.
+    private final Map<Integer, ConcurrentNavigableMap<String, Employee>> companyEmailOrder = new ConcurrentHashMap<>();
+    private final Map<Integer, ConcurrentNavigableMap<LastNameKey, Employee>> companyLastNameOrder = new ConcurrentHashMap<>();
+    private final Map<EmploymentStatus, Set<Employee>> employeesByStatus = new EnumMap<>(EmploymentStatus.class);
+    private final Map<Position, Set<Employee>> employeesByPosition = new EnumMap<>(Position.class);
+    private final Map<Integer, CompanyAggregate> companyAggregates = new ConcurrentHashMap<>();
+    private final CompanyDictionary companies;
+    private final SalaryColumns salaryColumns;
+    private final SalaryRankIndex salaryRanking = new SalaryRankIndex();
+    private final Map<Position, SalaryRankIndex> salaryRankingByPosition = new EnumMap<>(Position.class);
+    // Agregaty zmienione w trakcie bieżącego zapisu; ich migawki są publikowane przed zwolnieniem blokady.
+    private final List<CompanyAggregate> touchedAggregates = new ArrayList<>();
+    private double totalSalary;
+    private int count;
+    private final List<EmployeeChangeListener> listeners = new CopyOnWriteArrayList<>();
+    // Zmiany bieżącej sekcji zapisu oraz zakończone sekcje czekające na słuchaczy (w kolejności wersji).
+    private List<Change> sectionChanges = new ArrayList<>();
+    private final Queue<Section> pendingSections = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock notificationLock = new ReentrantLock();
+    private volatile long version;
+    // Wersja ostatniej sekcji przekazanej już wszystkim słuchaczom; podbija ją wątek dostarczający.
+    private volatile long deliveredVersion;
+    // Wersje liczą się od zera w każdej instancji, więc same nie odróżniają danych z różnych uruchomień.
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    // Czy bieżąca sekcja zapisu zakończyła jakąś zmianę; wtedy przy jej zamknięciu wersja jest podbijana.
+    private boolean changed;
+
+    private record Change(Employee before, Employee after) {
+    }
+
+    private record Section(long version, List<Change> changes) {
+    }
+
+    public EmployeeRepository() {
+        this(true, null, Integer.MAX_VALUE);
+    }
+
+    public EmployeeRepository(boolean vectorKernels, ForkJoinPool analyticsPool, int parallelThreshold) {
+        this(new CompanyDictionary(), vectorKernels, analyticsPool, parallelThreshold);
+    }
+
+    /**
+     * @param companies         słownik firm tego magazynu
+     * @param vectorKernels     czy agregacje po pensjach mają używać Vector API, jeśli JVM je udostępnia
+     * @param analyticsPool     pula dla równoległych przeglądów kolumn; {@code null} - zawsze sekwencyjnie
+     * @param parallelThreshold od ilu pracowników przeglądy kolumn są dzielone między wątki puli
+     */
+    @Autowired
+    public EmployeeRepository(CompanyDictionary companies,
+                              @Value("${app.analytics.vector:true}") boolean vectorKernels,
+                              ForkJoinPool analyticsPool,
+                              @Value("${app.analytics.parallel-scan-threshold:200000}") int parallelThreshold) {
+        this.companies = companies;
+        this.salaryColumns = new SalaryColumns(vectorKernels ? SalaryKernels.best() : SalaryKernels.scalar(),
+                analyticsPool, parallelThreshold);
+        log.debug("Jądra agregacji pensji: {}", salaryColumns.kernels().name());
+        // Kubełki enumów istnieją zawsze, dzięki czemu odczyt optymistyczny czyta tylko ich rozmiary.
+        for (EmploymentStatus status : EmploymentStatus.values()) {
+            employeesByStatus.put(status, new LinkedHashSet<>());
+        }
+        for (Position position : Position.values()) {
+            employeesByPosition.put(position, new LinkedHashSet<>());
+            salaryRankingByPosition.put(position, new SalaryRankIndex());
+        }
+    }
+
+    /**
+     * @return {@code false}, gdy pracownik o tym emailu już istnieje.
+     */
+    public boolean insert(Employee employee) {
+        long stamp = lock.writeLock();
+        try {
+            String key = normalizeEmail(employee.getEmail());
+            if (employees.containsKey(key)) {
+                return false;
+            }
+            add(key, employee);
+            return true;
+        } finally {
+            endWrite(stamp);
+        }
+    }
+
+    /**
+     * Wstawia całą paczkę pod jednym przejęciem blokady zapisu.
+     *
+     * @return dla każdego elementu {@code true}, jeśli został wstawiony,
+     *         {@code false}, jeśli email już istniał (również wcześniej w tej paczce).
+     */
+    public boolean[] insertAll(List<Employee> batch) {
+        boolean[] inserted = new boolean[batch.size()];
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < inserted.length; i++) {
+                Employee employee = batch.get(i);
+                String key = normalizeEmail(employee.getEmail());
+                if (!employees.containsKey(key)) {
+                    add(key, employee);
+                    inserted[i] = true;
+                }
+            }
+            return inserted;
+        } finally {
+            endWrite(stamp);
+        }
+    }
+
+    /**
+     * Wylicza nową wersję pracownika z bieżącej i podmienia ją pod blokadą zapisu.
+     * Czytelnicy widzą w całości albo starą, albo nową wersję.
+     *
+     * @return nowa wersja pracownika albo {@code null}, gdy nie istnieje.
+     */
+    public Employee update(String email, UnaryOperator<Employee> change) {
+        long stamp = lock.writeLock();
+        try {
+            String key = normalizeEmail(email);
+            Employee existing = employees.get(key);
+            if (existing == null) {
+                return null;
+            }
+            return replace(key, existing, change.apply(existing));
+        } finally {
+            endWrite(stamp);
+        }
+    }
+
+    /**
+     * Wsadowy odpowiednik {@link #update}: zmiana {@code changes.get(i)} dotyczy
+     * {@code emails.get(i)}, całość pod jednym przejęciem blokady zapisu.
+     *
+     * @return nowe wersje, z {@code null} dla emaili, których nie ma w magazynie.
+     */
+    public Employee[] updateAll(List<String> emails, List<UnaryOperator<Employee>> changes) {
+        Employee[] updated = new Employee[emails.size()];
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < updated.length; i++) {
+                String key = normalizeEmail(emails.get(i));
+                Employee existing = employees.get(key);
+                if (existing != null) {
+                    updated[i] = replace(key, existing, changes.get(i).apply(existing));
+                }
+            }
+            return updated;
+        } finally {
+            endWrite(stamp);
+        }
+    }
+
+    /**
+     * Wstawia albo podmienia całe wersje pracowników pod jednym przejęciem blokady zapisu.
+     *
+     * @return dla każdego elementu {@code true}, jeśli został wstawiony, {@code false}, jeśli zastąpił istniejącego.
+     */
+    public boolean[] upsertAll(List<Employee> batch) {
+        boolean[] created = new boolean[batch.size()];
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < created.length; i++) {
+                Employee employee = batch.get(i);
+                String key = normalizeEmail(employee.getEmail());
+                Employee existing = employees.get(key);
+                if (existing == null) {
+                    add(key, employee);
+                    created[i] = true;
+                } else {
+                    replace(key, existing, employee);
+                }
+            }
+            return created;
+        } finally {
+            endWrite(stamp);
+        }
+    }
+
+    /**
+     * @return usunięty pracownik albo {@code null}, gdy nie istniał.
+     */
+    public Employee remove(String email) {
+        long stamp = lock.writeLock();
+        try {
+            String key = normalizeEmail(email);
+            Employee removed = employees.remove(key);
+            if (removed != null) {
+                employeesInEmailOrder.remove(key);
+                unindex(removed, null);
+                recordChange(removed, null);
+            }
+            return removed;
+        } finally {
+            endWrite(stamp);
+        }
+    }
+
+    public Optional<Employee> findByEmail(String email) {
+        return Optional.ofNullable(employees.get(normalizeEmail(email)));
+    }
+
+    public List<Employee> findAll() {
+        long stamp = lock.readLock();
+        try {
+            return new ArrayList<>(employees.values());
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Zwraca do {@code limit} pracowników w kolejności emaili (bez rozróżniania
+     * wielkości liter), zaczynając za {@code afterEmail}. Z filtrem firmy strona jest
+     * czytana z indeksu tej firmy, więc koszt zależy od rozmiaru strony, a nie od
+     * liczby pracowników pozostałych firm. Strona jest składana bez
+     * blokady: każdy element to spójna wersja, ale zapisy wykonywane w trakcie
+     * mogą, jak przy każdym stronicowaniu kursorem, trafić lub nie trafić na stronę.
+     */
+    public List<Employee> findPage(String afterEmail, int limit, String companyName) {
+        NavigableMap<String, Employee> index = emailOrder(companyName);
+        if (index == null) {
+            return new ArrayList<>();
+        }
+        NavigableMap<String, Employee> view = afterEmail == null
+                ? index
+                : index.tailMap(normalizeEmail(afterEmail), false);
+        return firstPage(view, limit);
+    }
+
+    /**
+     * Wszyscy pracownicy w kolejności nazwisk (bez rozróżniania wielkości liter), przy
+     * takich samych nazwiskach - emaili. Spójna migawka jak {@link #findAll()}, bez sortowania.
+     */
+    public List<Employee> findAllInLastNameOrder() {
+        long stamp = lock.readLock();
+        try {
+            return new ArrayList<>(employeesInLastNameOrder.values());
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Odpowiednik {@link #findPage} w kolejności nazwisk: do {@code limit} pracowników
+     * za pozycją ({@code afterLastName}, {@code afterEmail}) (obie {@code null} - od początku).
+     * Opcjonalny zakres nazwisk działa na przedrostkach bez rozróżniania wielkości liter:
+     * {@code fromLastName="A"}, {@code toLastName="C"} obejmuje nazwiska od "A" do "Cz...".
+     * Koszt zależy od rozmiaru strony, nie od liczby pracowników - również z filtrem firmy.
+     */
+    public List<Employee> findPageByLastName(String afterLastName, String afterEmail, int limit,
+                                             String fromLastName, String toLastName, String companyName) {
+        LastNameKey lower = fromLastName == null ? null : LastNameKey.firstWithPrefix(fromLastName);
+        boolean lowerInclusive = true;
+        if (afterEmail != null) {
+            LastNameKey after = LastNameKey.of(afterLastName, afterEmail);
+            if (lower == null || after.compareTo(lower) >= 0) {
+                lower = after;
+                lowerInclusive = false;
+            }
+        }
+        LastNameKey upper = toLastName == null ? null : LastNameKey.afterPrefix(toLastName);
+        if (lower != null && upper != null && lower.compareTo(upper) >= 0) {
+            return new ArrayList<>();
+        }
+
+        NavigableMap<LastNameKey, Employee> index = companyName == null
+                ? employeesInLastNameOrder
+                : companyLastNameOrder.get(companies.find(companyName));
+        if (index == null) {
+            return new ArrayList<>();
+        }
+        NavigableMap<LastNameKey, Employee> view;
+        if (lower == null) {
+            view = upper == null ? index : index.headMap(upper, false);
+        } else {
+            view = upper == null
+                    ? index.tailMap(lower, lowerInclusive)
+                    : index.subMap(lower, lowerInclusive, upper, false);
+        }
+        return firstPage(view, limit);
+    }
+
+    // Indeks w kolejności emaili: cały albo jednej firmy; null, gdy w firmie nikt nie pracuje.
+    private NavigableMap<String, Employee> emailOrder(String companyName) {
+        return companyName == null ? employeesInEmailOrder : companyEmailOrder.get(companies.find(companyName));
+    }
+
+    private static List<Employee> firstPage(NavigableMap<?, Employee> view, int limit) {
+        List<Employee> page = new ArrayList<>(Math.min(limit, 1024));
+        for (Employee employee : view.values()) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(employee);
+        }
+        return page;
+    }
+
+    /**
+     * Przekazuje do {@code action} wszystkich pracowników pasujących do filtrów
+     * ({@code null} - bez filtra) w kolejności emaili, bez blokady i bez kopiowania
+     * kolekcji, więc pamięć nie zależy od liczby pracowników. Z filtrem firmy
+     * przechodzi tylko indeks tej firmy. Widok jest słabo spójny jak w {@link #findPage}.
+     */
+    public void forEachInEmailOrder(String companyName, EmploymentStatus status, Consumer<Employee> action) {
+        NavigableMap<String, Employee> index = emailOrder(companyName);
+        if (index == null) {
+            return;
+        }
+        for (Employee employee : index.values()) {
+            if (status == null || status == employee.getStatus()) {
+                action.accept(employee);
+            }
+        }
+    }
+
+    public List<Employee> findByCompany(String companyName) {
+        long stamp = lock.readLock();
+        try {
+            Set<Employee> bucket = employeesByCompany.get(companies.find(companyName));
+            return bucket == null ? new ArrayList<>() : new ArrayList<>(bucket);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public List<Employee> findByStatus(EmploymentStatus status) {
+        long stamp = lock.readLock();
+        try {
+            return new ArrayList<>(employeesByStatus.get(status));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public Map<Position, Long> countByPosition() {
+        return countBuckets(employeesByPosition, () -> new EnumMap<>(Position.class));
+    }
+
+    public Map<EmploymentStatus, Long> countByStatus() {
+        return countBuckets(employeesByStatus, () -> new EnumMap<>(EmploymentStatus.class));
+    }
+
+    public void addChangeListener(EmployeeChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Globalna wersja magazynu; rośnie po każdej sekcji zapisu, która coś zmieniła.
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Losowy identyfikator tej instancji magazynu; razem z {@link #version()} jednoznacznie
+     * wskazuje stan danych także między restartami aplikacji.
+     */
+    public String epoch() {
+        return epoch;
+    }
+
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int result = count;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = count;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Liczba wpisów w każdym indeksie (dla kubełków - liczba kubełków), do metryk.
+     */
+    public Map<String, Integer> indexSizes() {
+        long stamp = lock.readLock();
+        try {
+            Map<String, Integer> sizes = new LinkedHashMap<>();
+            sizes.put("email", employees.size());
+            sizes.put("email_order", employeesInEmailOrder.size());
+            sizes.put("last_name_order", employeesInLastNameOrder.size());
+            sizes.put("company", employeesByCompany.size());
+            sizes.put("company_order", companyEmailOrder.size());
+            sizes.put("company_aggregates", companyAggregates.size());
+            sizes.put("company_dictionary", companies.size());
+            sizes.put("salary_columns", salaryColumns.size());
+            sizes.put("salary_ranking", salaryRanking.size());
+            return sizes;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public Optional<Employee> findHighestPaid() {
+        long stamp = lock.readLock();
+        try {
+            return Optional.ofNullable(salaryRanking.get(0));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Pierwszych {@code limit} pracowników według pensji (przy równych pensjach - według emaila).
+     */
+    public List<Employee> findTopEarners(int limit) {
+        long stamp = lock.readLock();
+        try {
+            return salaryRanking.top(limit);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Odpowiednik {@link #findTopEarners} w obrębie firmy; pusta lista, gdy firma nie istnieje.
+     */
+    public List<Employee> findTopEarnersByCompany(String companyName, int limit) {
+        long stamp = lock.readLock();
+        try {
+            CompanyAggregate aggregate = companyAggregates.get(companies.find(companyName));
+            return aggregate == null ? new ArrayList<>() : aggregate.getTopEarners(limit);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Percentyle pensji na stanowisku (każdy z przedziału (0, 100]); pusto, gdy nikt go nie zajmuje.
+     */
+    public Optional<SalaryPercentilesDTO> salaryPercentiles(Position position, double[] percentiles) {
+        long stamp = lock.readLock();
+        try {
+            SalaryRankIndex ranking = salaryRankingByPosition.get(position);
+            if (ranking.size() == 0) {
+                return Optional.empty();
+            }
+            Map<String, Double> values = new LinkedHashMap<>();
+            for (double percentile : percentiles) {
+                values.put(percentileLabel(percentile), ranking.percentile(percentile));
+            }
+            return Optional.of(new SalaryPercentilesDTO(position, ranking.size(), values));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private static String percentileLabel(double percentile) {
+        return percentile == Math.rint(percentile) ? "p" + (long) percentile : "p" + percentile;
+    }
+
+    /**
+     * Pracownicy z pensją niższą niż bazowa dla ich stanowiska.
+     */
+    public List<Employee> findBelowBaseSalary() {
+        long stamp = lock.readLock();
+        try {
+            return salaryColumns.belowBaseSalary();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Sumy pensji i liczności według stanowiska (indeks = ordinal {@link Position}).
+     */
+    public void salaryTotalsByPosition(double[] sums, long[] counts) {
+        long stamp = lock.readLock();
+        try {
+            salaryColumns.sumByPosition(sums, counts);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public double averageSalary() {
+        long stamp = lock.tryOptimisticRead();
+        double sum = totalSalary;
+        int n = count;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                sum = totalSalary;
+                n = count;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return n == 0 ? 0.0 : sum / n;
+    }
+
+    public Optional<CompanyStatisticsDTO> companyStatistics(String companyName) {
+        CompanyAggregate aggregate = companyAggregates.get(companies.find(companyName));
+        return aggregate == null ? Optional.empty() : Optional.ofNullable(aggregate.getSnapshot());
+    }
+
+    public List<CompanyStatisticsDTO> allCompanyStatistics() {
+        long stamp = lock.readLock();
+        try {
+            List<CompanyStatisticsDTO> result = new ArrayList<>(companyAggregates.size());
+            for (CompanyAggregate aggregate : companyAggregates.values()) {
+                result.add(aggregate.getSnapshot());
+            }
+            return result;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private <K> Map<K, Long> countBuckets(Map<K, Set<Employee>> index, Supplier<Map<K, Long>> factory) {
+        long stamp = lock.tryOptimisticRead();
+        Map<K, Long> result = readBucketSizes(index, factory.get());
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = readBucketSizes(index, factory.get());
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    private static <K> Map<K, Long> readBucketSizes(Map<K, Set<Employee>> index, Map<K, Long> result) {
+        index.forEach((key, bucket) -> {
+            int size = bucket.size();
+            if (size > 0) {
+                result.put(key, (long) size);
+            }
+        });
+        return result;
+    }
+
+    private void add(String key, Employee employee) {
+        Employee stored = stamp(employee);
+        employees.put(key, stored);
+        employeesInEmailOrder.put(key, stored);
+        index(stored, null);
+        recordChange(null, stored);
+    }
+
+    private Employee replace(String key, Employee existing, Employee updated) {
+        if (updated.getEmail() == null || !key.equals(normalizeEmail(updated.getEmail()))) {
+            throw new IllegalArgumentException("Employee email cannot be changed");
+        }
+        Employee stored = stamp(updated);
+        unindex(existing, stored);
+        employees.put(key, stored);
+        employeesInEmailOrder.put(key, stored);
+        index(stored, existing);
+        recordChange(existing, stored);
+        return stored;
+    }
+
+    /**
+     * Wersja do zapisania: numer bieżącej sekcji zapisu i firma ze słownika. Referencja do firmy
+     * jest brana przed usunięciem poprzedniej wersji z indeksów, więc przy zmianie innych pól
+     * firma jedynego pracownika nie zmienia identyfikatora. Oddaje ją {@link #unindex}.
+     */
+    private Employee stamp(Employee employee) {
+        String company = employee.getCompany();
+        if (company == null) {
+            return employee.stored(version + 1, null, Employee.NO_COMPANY);
+        }
+        CompanyDictionary.Entry entry = companies.acquire(company);
+        return employee.stored(version + 1, company.equals(entry.name) ? entry.name : company, entry.id);
+    }
+
+    // Zmiana trafia do słuchaczy i podbija wersję dopiero wtedy, gdy wszystkie indeksy zostały zaktualizowane.
+    private void recordChange(Employee before, Employee after) {
+        changed = true;
+        sectionChanges.add(new Change(before, after));
+    }
+
+    /**
+     * @param replaced poprzednia wersja, gdy {@code employee} ją zastępuje ({@code null} przy dodaniu);
+     *                 tam, gdzie klucze się nie zmieniły, wpis jest podmieniany na miejscu
+     */
+    private void index(Employee employee, Employee replaced) {
+        count++;
+        totalSalary += employee.getSalary();
+        int companyId = employee.getCompanyId();
+        LastNameKey lastNameKey = LastNameKey.of(employee.getLastName(), employee.getEmail());
+        if (replaced == null) {
+            salaryColumns.add(employee);
+        } else {
+            salaryColumns.replace(replaced, employee);
+        }
+        employeesInLastNameOrder.put(lastNameKey, employee);
+        if (sameSalaryRank(replaced, employee)) {
+            salaryRanking.replace(replaced, employee);
+        } else {
+            salaryRanking.add(employee);
+        }
+        if (companyId != Employee.NO_COMPANY) {
+            employeesByCompany.computeIfAbsent(companyId, k -> new LinkedHashSet<>()).add(employee);
+            companyEmailOrder.computeIfAbsent(companyId, k -> new ConcurrentSkipListMap<>())
+                    .put(lastNameKey.email(), employee);
+            companyLastNameOrder.computeIfAbsent(companyId, k -> new ConcurrentSkipListMap<>())
+                    .put(lastNameKey, employee);
+            CompanyAggregate aggregate = companyAggregates.computeIfAbsent(companyId, k -> new CompanyAggregate(k, employee.getCompany()));
+            aggregate.add(employee);
+            touchedAggregates.add(aggregate);
+        }
+        if (employee.getStatus() != null) {
+            employeesByStatus.get(employee.getStatus()).add(employee);
+        }
+        if (employee.getPosition() != null) {
+            employeesByPosition.get(employee.getPosition()).add(employee);
+            SalaryRankIndex positionRanking = salaryRankingByPosition.get(employee.getPosition());
+            if (sameSalaryRank(replaced, employee) && replaced.getPosition() == employee.getPosition()) {
+                positionRanking.replace(replaced, employee);
+            } else {
+                positionRanking.add(employee);
+            }
+        }
+    }
+
+    /**
+     * @param replacement wersja zastępująca {@code employee} ({@code null} przy usunięciu);
+     *                    wpisy, które {@link #index} podmieni na miejscu, zostają
+     */
+    private void unindex(Employee employee, Employee replacement) {
+        count--;
+        totalSalary = count == 0 ? 0.0 : totalSalary - employee.getSalary();
+        boolean sameOrderKeys = sameOrderKeys(employee, replacement);
+        if (replacement == null) {
+            salaryColumns.remove(employee);
+        }
+        if (!sameOrderKeys) {
+            employeesInLastNameOrder.remove(LastNameKey.of(employee.getLastName(), employee.getEmail()));
+        }
+        if (!sameSalaryRank(employee, replacement)) {
+            salaryRanking.remove(employee);
+        }
+        int companyId = employee.getCompanyId();
+        if (companyId != Employee.NO_COMPANY) {
+            Set<Employee> bucket = employeesByCompany.get(companyId);
+            if (bucket != null && bucket.remove(employee) && bucket.isEmpty()) {
+                employeesByCompany.remove(companyId);
+            }
+            if (!sameOrderKeys) {
+                removeFromCompanyOrder(companyEmailOrder, companyId, normalizeEmail(employee.getEmail()));
+                removeFromCompanyOrder(companyLastNameOrder, companyId, LastNameKey.of(employee.getLastName(), employee.getEmail()));
+            }
+            CompanyAggregate aggregate = companyAggregates.get(companyId);
+            if (aggregate != null) {
+                aggregate.remove(employee);
+                touchedAggregates.add(aggregate);
+            }
+            companies.release(companyId);
+        }
+        if (employee.getStatus() != null) {
+            employeesByStatus.get(employee.getStatus()).remove(employee);
+        }
+        if (employee.getPosition() != null) {
+            employeesByPosition.get(employee.getPosition()).remove(employee);
+            if (!sameSalaryRank(employee, replacement) || replacement.getPosition() != employee.getPosition()) {
+                salaryRankingByPosition.get(employee.getPosition()).remove(employee);
+            }
+        }
+    }
+
+    // Ta sama firma i nazwisko (email się nie zmienia) - te same klucze indeksów uporządkowanych.
+    private static boolean sameOrderKeys(Employee existing, Employee replacement) {
+        return replacement != null && replacement.getCompanyId() == existing.getCompanyId()
+                && LastNameKey.normalize(replacement.getLastName()).equals(LastNameKey.normalize(existing.getLastName()));
+    }
+
+    // Ta sama pensja (email się nie zmienia) - to samo miejsce w rankingach pensji.
+    private static boolean sameSalaryRank(Employee existing, Employee replacement) {
+        return existing != null && replacement != null && Double.compare(existing.getSalary(), replacement.getSalary()) == 0;
+    }
+
+    // Pusty indeks firmy znika; identyfikatory firm nie wracają, więc czytelnik ze starym indeksem nie trafi na inną firmę.
+    private static <K> void removeFromCompanyOrder(Map<Integer, ConcurrentNavigableMap<K, Employee>> index, int companyId, K key) {
+        ConcurrentNavigableMap<K, Employee> order = index.get(companyId);
+        if (order != null && order.remove(key) != null && order.isEmpty()) {
+            index.remove(companyId, order);
+        }
+    }
+
+    /**
+     * Kończy sekcję zapisu: publikuje zmiany i zwalnia blokadę także wtedy, gdy sekcja
+     * albo publikacja rzuciły wyjątek, a słuchaczy powiadamia już bez blokady.
+     */
+    private void endWrite(long stamp) {
+        long published;
+        try {
+            published = publishChanges();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        deliverChanges(published);
+    }
+
+    /** Zwraca wersję opublikowanej sekcji albo 0, gdy sekcja niczego nie zmieniła. */
+    private long publishChanges() {
+        long published = 0;
+        try {
+            for (CompanyAggregate aggregate : touchedAggregates) {
+                if (aggregate.isEmpty()) {
+                    companyAggregates.remove(aggregate.getCompanyId(), aggregate);
+                } else {
+                    aggregate.publishSnapshot();
+                }
+            }
+        } finally {
+            touchedAggregates.clear();
+            if (changed) {
+                published = ++version;
+                changed = false;
+                pendingSections.add(new Section(published, sectionChanges));
+                sectionChanges = new ArrayList<>();
+            }
+        }
+        return published;
+    }
+
+    /**
+     * Przekazuje słuchaczom zmiany sekcji zapisu w kolejności ich zakończenia, po jednej
+     * sekcji naraz. Wątek wychodzi stąd dopiero, gdy sekcja o wersji {@code own} została
+     * dostarczona (przez niego albo przez wątek, który wcześniej trzymał blokadę powiadomień).
+     * Sekcje są zdejmowane z kolejki tylko pod tą blokadą, więc jej przejęcie oznacza, że
+     * sekcja pobrana przez poprzedniego dostarczającego dotarła już do wszystkich słuchaczy.
+     */
+    private void deliverChanges(long own) {
+        if (own == 0 || deliveredVersion >= own) {
+            return;
+        }
+        notificationLock.lock();
+        try {
+            Section section;
+            while ((section = pendingSections.poll()) != null) {
+                for (EmployeeChangeListener listener : listeners) {
+                    notify(listener, section.changes());
+                }
+                deliveredVersion = section.version();
+            }
+        } finally {
+            notificationLock.unlock();
+        }
+    }
+
+    private static void notify(EmployeeChangeListener listener, List<Change> section) {
+        for (Change change : section) {
+            try {
+                listener.onChange(change.before(), change.after());
+            } catch (RuntimeException e) {
+                log.error("Słuchacz zmian {} zgłosił błąd w onChange", listener.getClass().getSimpleName(), e);
+            }
+        }
+        try {
+            listener.afterWrite();
+        } catch (RuntimeException e) {
+            log.error("Słuchacz zmian {} zgłosił błąd w afterWrite", listener.getClass().getSimpleName(), e);
+        }
+    }
+
+    static String normalizeEmail(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,39 @@
+package com.techcorp.employee.repository;
+
+import java.util.Locale;
+
+/**
+ * Klucz indeksu nazwisk: nazwisko bez rozróżniania wielkości liter, a przy
+ * takich samych nazwiskach - email, więc każdy pracownik ma jedno, stałe miejsce.
+ * Brak nazwiska jest traktowany jak nazwisko puste (na początku kolejności).
+ */
+record LastNameKey(String lastName, String email) implements Comparable<LastNameKey> {
+
+    static LastNameKey of(String lastName, String email) {
+        return new LastNameKey(normalize(lastName), EmployeeRepository.normalizeEmail(email));
+    }
+
+    /**
+     * Najmniejszy klucz z nazwiskiem zaczynającym się od {@code prefix}.
+     */
+    static LastNameKey firstWithPrefix(String prefix) {
+        return new LastNameKey(normalize(prefix), "");
+    }
+
+    /**
+     * Klucz większy od kluczy wszystkich nazwisk zaczynających się od {@code prefix}.
+     */
+    static LastNameKey afterPrefix(String prefix) {
+        return new LastNameKey(normalize(prefix) + Character.MAX_VALUE, "");
+    }
+
+    static String normalize(String lastName) {
+        return lastName == null ? "" : lastName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public int compareTo(LastNameKey other) {
+        int result = lastName.compareTo(other.lastName);
+        return result != 0 ? result : email.compareTo(other.email);
+    }
+}
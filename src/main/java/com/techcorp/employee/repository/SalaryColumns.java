@@ -0,0 +1,226 @@
+package com.techcorp.employee.repository;
+
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.Position;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * Kolumnowa kopia danych analitycznych magazynu: pensje w {@code double[]}
+ * i stanowiska jako ordinale w {@code byte[]} - tylko kolumny, które czytają
+ * przeglądy. Agregacje przechodzą ciasne pętle po tablicach prymitywów
+ * ({@link SalaryKernels}) zamiast po obiektach {@link Employee}.
+ *
+ * Wiersze są gęste: usunięcie przenosi ostatni wiersz w zwolnione miejsce,
+ * więc kolejność wierszy nie ma znaczenia. Zmiany wykonuje się pod blokadą
+ * zapisu repozytorium, odczyty - pod blokadą odczytu.
+ *
+ * Od {@code parallelThreshold} wierszy przeglądy kolumn - {@link #belowBaseSalary}
+ * i {@link #sumByPosition} - są dzielone na zakresy i liczone w osobnej puli
+ * fork/join; wyniki zakresów są łączone w kolejności wierszy, więc są identyczne
+ * z przeglądem sekwencyjnym. To jedyne przeglądy wszystkich pracowników: liczności
+ * stanowisk, statystyki firm i średnia pensja są agregatami utrzymywanymi przy
+ * zapisie (O(1) na odczyt), a sortowanie po nazwisku czyta gotowy indeks.
+ *
+ * Próg 200 000 (domyślny {@code app.analytics.parallel-scan-threshold}) wynika
+ * z {@code ParallelAnalyticsBenchmark}: przegląd sekwencyjny kosztuje ~1 ns na wiersz
+ * (pensje poniżej bazowej) i ~2 ns (sumy według stanowisk), a rozbicie na zadania
+ * i zebranie wyników - stały narzut 40-140 us. Przy 4 wątkach zysk 0,75 * n * koszt
+ * wiersza zrównuje się z narzutem przy ~10^5 wierszy; próg jest dwukrotnie wyżej,
+ * bo narzut rośnie na obciążonym serwerze.
+ */
+class SalaryColumns {
+
+    static final byte NONE = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+    // Najmniejszy zakres liczony przez jedno zadanie - krótsze nie pokrywają kosztu podziału.
+    private static final int MIN_CHUNK = 16_384;
+    // Pensja bazowa według ordinala stanowiska - wspólna dla jąder agregacji.
+    static final double[] BASE_SALARIES = new double[Position.values().length];
+
+    static {
+        for (Position position : Position.values()) {
+            BASE_SALARIES[position.ordinal()] = position.getSalary();
+        }
+    }
+
+    private double[] salaries = new double[INITIAL_CAPACITY];
+    private byte[] positions = new byte[INITIAL_CAPACITY];
+    private Employee[] rows = new Employee[INITIAL_CAPACITY];
+    private int size;
+
+    private final Map<Employee, Integer> rowOf = new IdentityHashMap<>();
+    private final SalaryKernels kernels;
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+
+    SalaryColumns(SalaryKernels kernels) {
+        this(kernels, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param pool              pula dla przeglądów równoległych; {@code null} - zawsze sekwencyjnie
+     * @param parallelThreshold od ilu wierszy przeglądy są dzielone między wątki puli
+     */
+    SalaryColumns(SalaryKernels kernels, ForkJoinPool pool, int parallelThreshold) {
+        this.kernels = kernels;
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    SalaryKernels kernels() {
+        return kernels;
+    }
+
+    void add(Employee employee) {
+        if (size == salaries.length) {
+            grow();
+        }
+        int row = size++;
+        salaries[row] = employee.getSalary();
+        positions[row] = employee.getPosition() == null ? NONE : (byte) employee.getPosition().ordinal();
+        rows[row] = employee;
+        rowOf.put(employee, row);
+    }
+
+    void remove(Employee employee) {
+        Integer removed = rowOf.remove(employee);
+        if (removed == null) {
+            return;
+        }
+        int row = removed;
+        int last = --size;
+        if (row != last) {
+            salaries[row] = salaries[last];
+            positions[row] = positions[last];
+            rows[row] = rows[last];
+            rowOf.put(rows[row], row);
+        }
+        rows[last] = null;
+    }
+
+    int size() {
+        return size;
+    }
+
+    List<Employee> belowBaseSalary() {
+        double[] salaryColumn = salaries;
+        byte[] positionColumn = positions;
+        Employee[] snapshot = rows;
+        return scan((from, to) -> {
+            List<Employee> result = new ArrayList<>();
+            kernels.forEachBelowBase(salaryColumn, positionColumn, from, to, row -> result.add(snapshot[row]));
+            return result;
+        }, (left, right) -> {
+            left.addAll(right);
+            return left;
+        });
+    }
+
+    /**
+     * Sumy pensji i liczności według stanowiska (indeks = ordinal). Pensje są sumowane
+     * w stałych blokach po {@link #MIN_CHUNK} wierszy, a sumy bloków składane w kolejności
+     * bloków - wynik co do bitu nie zależy od tego, czy i na ile wątków podzielono przegląd.
+     */
+    void sumByPosition(double[] sums, long[] counts) {
+        double[] salaryColumn = salaries;
+        byte[] positionColumn = positions;
+        int positionCount = BASE_SALARIES.length;
+        int blocks = (size + MIN_CHUNK - 1) / MIN_CHUNK;
+        double[] blockSums = new double[blocks * positionCount];
+        long[] blockCounts = new long[blocks * positionCount];
+        scan((from, to) -> {
+            for (int start = from; start < to; start += MIN_CHUNK) {
+                int end = Math.min(to, start + MIN_CHUNK);
+                int base = start / MIN_CHUNK * positionCount;
+                for (int row = start; row < end; row++) {
+                    byte position = positionColumn[row];
+                    if (position >= 0) {
+                        blockSums[base + position] += salaryColumn[row];
+                        blockCounts[base + position]++;
+                    }
+                }
+            }
+            return null;
+        }, (left, right) -> null);
+        for (int block = 0; block < blocks; block++) {
+            int base = block * positionCount;
+            for (int position = 0; position < positionCount; position++) {
+                sums[position] += blockSums[base + position];
+                counts[position] += blockCounts[base + position];
+            }
+        }
+    }
+
+    private <R> R scan(RangeScan<R> leaf, BinaryOperator<R> combine) {
+        int length = size;
+        if (pool == null || pool.getParallelism() < 2 || length < parallelThreshold || length < 2 * MIN_CHUNK) {
+            return leaf.scan(0, length);
+        }
+        int chunk = Math.max(MIN_CHUNK, length / (pool.getParallelism() * 4));
+        return pool.invoke(new ScanTask<>(leaf, combine, chunk, 0, length));
+    }
+
+    @FunctionalInterface
+    private interface RangeScan<R> {
+        R scan(int from, int to);
+    }
+
+    private static final class ScanTask<R> extends RecursiveTask<R> {
+        private final RangeScan<R> leaf;
+        private final BinaryOperator<R> combine;
+        private final int chunk;
+        private final int from;
+        private final int to;
+
+        ScanTask(RangeScan<R> leaf, BinaryOperator<R> combine, int chunk, int from, int to) {
+            this.leaf = leaf;
+            this.combine = combine;
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from <= chunk) {
+                return leaf.scan(from, to);
+            }
+            // podział na granicy bloku MIN_CHUNK - zakresy zadań składają się z całych bloków
+            int middle = from + Math.max(MIN_CHUNK, (to - from) / (2 * MIN_CHUNK) * MIN_CHUNK);
+            ScanTask<R> left = new ScanTask<>(leaf, combine, chunk, from, middle);
+            left.fork();
+            R right = new ScanTask<>(leaf, combine, chunk, middle, to).compute();
+            return combine.apply(left.join(), right);
+        }
+    }
+
+    /**
+     * Nowa wersja pracownika w wierszu poprzedniej.
+     */
+    void replace(Employee existing, Employee replacement) {
+        Integer row = rowOf.remove(existing);
+        if (row == null) {
+            add(replacement);
+            return;
+        }
+        salaries[row] = replacement.getSalary();
+        positions[row] = replacement.getPosition() == null ? NONE : (byte) replacement.getPosition().ordinal();
+        rows[row] = replacement;
+        rowOf.put(replacement, row);
+    }
+
+    private void grow() {
+        int capacity = salaries.length + (salaries.length >> 1);
+        salaries = Arrays.copyOf(salaries, capacity);
+        positions = Arrays.copyOf(positions, capacity);
+        rows = Arrays.copyOf(rows, capacity);
+    }
+}
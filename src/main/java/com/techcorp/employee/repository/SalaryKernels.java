@@ -0,0 +1,47 @@
+package com.techcorp.employee.repository;
+
+import com.techcorp.employee.model.Position;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Jądra przeglądów kolumn pensji i stanowisk ({@link SalaryColumns}) - tylko te,
+ * dla których wersja wektorowa wygrywa ze skalarną w SalaryKernelsBenchmark.
+ * Stanowisko to ordinal {@link Position} albo {@code -1} dla braku stanowiska.
+ *
+ * Implementacja wektorowa (Vector API) jest używana, gdy JVM uruchomiono
+ * z {@code --add-modules jdk.incubator.vector}; w przeciwnym razie - skalarna.
+ * Jądra działają na zakresie wierszy {@code [from, to)}, dzięki czemu kolumnę
+ * można dzielić między wątki.
+ */
+public interface SalaryKernels {
+
+    String VECTOR_MODULE = "jdk.incubator.vector";
+
+    /**
+     * Przekazuje rosnąco indeksy wierszy z {@code [from, to)} z pensją niższą niż bazowa dla stanowiska.
+     *
+     * @return liczba takich wierszy
+     */
+    int forEachBelowBase(double[] salaries, byte[] positions, int from, int to, IntConsumer action);
+
+    String name();
+
+    static SalaryKernels scalar() {
+        return ScalarSalaryKernels.INSTANCE;
+    }
+
+    /**
+     * Jądra wektorowe, jeśli moduł Vector API jest dostępny, inaczej skalarne.
+     */
+    static SalaryKernels best() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return scalar();
+        }
+        try {
+            return VectorSalaryKernels.INSTANCE;
+        } catch (LinkageError e) {
+            return scalar();
+        }
+    }
+}
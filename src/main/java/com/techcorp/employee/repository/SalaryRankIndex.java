@@ -0,0 +1,196 @@
+package com.techcorp.employee.repository;
+
+import com.techcorp.employee.model.Employee;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Ranking pensji: drzewo statystyk pozycyjnych (treap z licznością poddrzew)
+ * w kolejności {@link CompanyAggregate#BY_SALARY_DESC}. Dodanie, usunięcie
+ * i k-ty element kosztują O(log n), pierwszych k elementów - O(log n + k),
+ * więc percentyle i ranking nie przeglądają wszystkich pracowników.
+ *
+ * Zmiany wykonuje się pod blokadą zapisu repozytorium, odczyty - pod blokadą odczytu.
+ */
+final class SalaryRankIndex {
+
+    private static final class Node {
+        Employee employee;
+        final int priority;
+        Node left;
+        Node right;
+        int size = 1;
+
+        Node(Employee employee, int priority) {
+            this.employee = employee;
+            this.priority = priority;
+        }
+    }
+
+    // Priorytety losowe utrzymują oczekiwaną wysokość O(log n) niezależnie od kolejności wstawiania.
+    private final SplittableRandom random = new SplittableRandom(0x5EED);
+    private Node root;
+
+    void add(Employee employee) {
+        root = insert(root, new Node(employee, random.nextInt()));
+    }
+
+    boolean remove(Employee employee) {
+        int before = size(root);
+        root = delete(root, employee);
+        return size(root) < before;
+    }
+
+    /**
+     * Podmienia {@code existing} na {@code replacement} w tym samym węźle - bez rotacji.
+     * Obie wersje muszą mieć to samo miejsce w kolejności (ta sama pensja i email).
+     */
+    boolean replace(Employee existing, Employee replacement) {
+        Node node = root;
+        while (node != null) {
+            int cmp = CompanyAggregate.BY_SALARY_DESC.compare(existing, node.employee);
+            if (cmp == 0) {
+                node.employee = replacement;
+                return true;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return false;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * Element o indeksie {@code index} (0 - najwyższa pensja) albo {@code null} poza zakresem.
+     */
+    Employee get(int index) {
+        if (index < 0 || index >= size(root)) {
+            return null;
+        }
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.employee;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Pierwszych {@code limit} pracowników rankingu.
+     */
+    List<Employee> top(int limit) {
+        List<Employee> result = new ArrayList<>(Math.min(limit, size(root)));
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        while (result.size() < limit && (node != null || !path.isEmpty())) {
+            while (node != null) {
+                path.push(node);
+                node = node.left;
+            }
+            node = path.pop();
+            result.add(node.employee);
+            node = node.right;
+        }
+        return result;
+    }
+
+    /**
+     * Pensja dla percentyla {@code percentile} (0-100] metodą najbliższej rangi
+     * albo {@code NaN}, gdy ranking jest pusty.
+     */
+    double percentile(double percentile) {
+        int n = size(root);
+        if (n == 0) {
+            return Double.NaN;
+        }
+        int ascendingRank = Math.max(1, (int) Math.ceil(percentile / 100.0 * n));
+        return get(n - ascendingRank).getSalary();
+    }
+
+    // Wstawienie jak do zwykłego drzewa BST, potem rotacje w górę, dopóki priorytet jest wyższy od rodzica.
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (CompanyAggregate.BY_SALARY_DESC.compare(added.employee, node.employee) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                return rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                return rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    // Usuwany węzeł jest obracany w dół (wyżej idzie dziecko o wyższym priorytecie), aż zostanie liściem.
+    private static Node delete(Node node, Employee employee) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = CompanyAggregate.BY_SALARY_DESC.compare(employee, node.employee);
+        if (cmp < 0) {
+            node.left = delete(node.left, employee);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, employee);
+        } else if (node.left == null) {
+            return node.right;
+        } else if (node.right == null) {
+            return node.left;
+        } else if (node.left.priority > node.right.priority) {
+            Node top = rotateRight(node);
+            top.right = delete(node, employee);
+            update(top);
+            return top;
+        } else {
+            Node top = rotateLeft(node);
+            top.left = delete(node, employee);
+            update(top);
+            return top;
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node top = node.left;
+        node.left = top.right;
+        top.right = node;
+        update(node);
+        update(top);
+        return top;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node top = node.right;
+        node.right = top.left;
+        top.left = node;
+        update(node);
+        update(top);
+        return top;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+}
@@ -0,0 +1,31 @@
+package com.techcorp.employee.repository;
+
+import java.util.function.IntConsumer;
+
+final class ScalarSalaryKernels implements SalaryKernels {
+
+    static final ScalarSalaryKernels INSTANCE = new ScalarSalaryKernels();
+
+    private static final double[] BASE_SALARIES = SalaryColumns.BASE_SALARIES;
+
+    private ScalarSalaryKernels() {
+    }
+
+    @Override
+    public int forEachBelowBase(double[] salaries, byte[] positions, int from, int to, IntConsumer action) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            byte position = positions[i];
+            if (position >= 0 && salaries[i] < BASE_SALARIES[position]) {
+                action.accept(i);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
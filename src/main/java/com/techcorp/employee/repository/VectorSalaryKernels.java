@@ -0,0 +1,74 @@
+package com.techcorp.employee.repository;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Jądra na Vector API. Kolumnę stanowisk czyta się blokami bajtów o długości
+ * co najmniej jednego wektora pensji (najkrótszy wektor bajtów ma 8 elementów);
+ * maski stanowisk (bity {@link VectorMask#toLong()}) są dzielone na części
+ * odpowiadające wektorom pensji, więc porównania bajtów i pensji dotyczą tych
+ * samych wierszy. Końcówki krótsze niż blok liczy pętla skalarna.
+ *
+ * Sumy według stanowiska zostały w {@link SalaryColumns} jako zwykła pętla: wersje
+ * maskowane (przebieg na stanowisko albo akumulator na stanowisko) przegrywały
+ * w SalaryKernelsBenchmark z jednym skalarnym przebiegiem.
+ */
+final class VectorSalaryKernels implements SalaryKernels {
+
+    static final VectorSalaryKernels INSTANCE = new VectorSalaryKernels();
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final int LANES = DOUBLES.length();
+    // Blok bajtów obejmuje pełne wektory pensji także przy więcej niż 8 elementach double (np. SVE).
+    private static final VectorSpecies<Byte> BYTES =
+            VectorSpecies.of(byte.class, VectorShape.forBitSize(Math.max(64, LANES * Byte.SIZE)));
+    // Wiersze w jednym bloku bajtów stanowisk i liczba wektorów double, na które się rozkłada.
+    private static final int BLOCK = BYTES.length();
+    private static final int PARTS = BLOCK / LANES;
+    private static final double[] BASE_SALARIES = SalaryColumns.BASE_SALARIES;
+
+    private VectorSalaryKernels() {
+    }
+
+    @Override
+    public int forEachBelowBase(double[] salaries, byte[] positions, int from, int to, IntConsumer action) {
+        int count = 0;
+        int i = from;
+        for (; i + BLOCK <= to; i += BLOCK) {
+            ByteVector block = ByteVector.fromArray(BYTES, positions, i);
+            for (int part = 0; part < PARTS; part++) {
+                int offset = i + part * LANES;
+                DoubleVector salary = DoubleVector.fromArray(DOUBLES, salaries, offset);
+                long below = 0;
+                for (int p = 0; p < BASE_SALARIES.length; p++) {
+                    long match = block.eq((byte) p).toLong() >>> (part * LANES);
+                    below |= match & salary.lt(BASE_SALARIES[p]).toLong();
+                }
+                while (below != 0) {
+                    action.accept(offset + Long.numberOfTrailingZeros(below));
+                    below &= below - 1;
+                    count++;
+                }
+            }
+        }
+        for (; i < to; i++) {
+            byte position = positions[i];
+            if (position >= 0 && salaries[i] < BASE_SALARIES[position]) {
+                action.accept(i);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public String name() {
+        return "vector(" + DOUBLES + ")";
+    }
+}
@@ -1,89 +1,368 @@
 package com.techcorp.employee.service;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.MalformedJsonException;
 import com.techcorp.employee.exception.ApiException;
 import com.techcorp.employee.model.Employee;
 import com.techcorp.employee.model.Position;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.EOFException;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+/**
+ * Pobieranie pracowników z zewnętrznego API. Przy {@code app.api.page-size > 0}
+ * strony są pobierane asynchronicznie ({@link HttpClient#sendAsync}), najwyżej
+ * {@code app.api.parallelism} naraz, a każda strona trafia do odbiorcy zaraz po
+ * pobraniu - w kolejności stron, więc wynik nie zależy od kolejności odpowiedzi.
+ * Pobieranie kończy krótka strona, nagłówek {@code X-Total-Count}, strona dłuższa niż
+ * {@code page-size} albo powtórzona (API ignoruje parametry stronicowania) oraz limit
+ * {@code app.api.max-pages}, po którego przekroczeniu zgłaszany jest błąd.
+ * Metryki: {@code employee.api.fetch} (całe pobranie, tag {@code outcome}),
+ * {@code employee.api.parse} (czytanie jednej odpowiedzi) i {@code employee.api.payload} (bajty odpowiedzi).
+ */
 @Service
 public class ApiService {
 
     private static final Position DEFAULT_POSITION = Position.PROGRAMMER;
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final int CHUNK_SIZE = 500;
+    private static final int DEFAULT_MAX_PAGES = 10_000;
+    // Wynik czytania strony, której pierwszy pracownik jest taki sam jak na poprzedniej.
+    private static final int REPEATED_PAGE = -1;
 
     private final HttpClient client;
     private final Gson gson;
     private final String apiUrl;
+    private final int pageSize;
+    private final int parallelism;
+    private final String pageParam;
+    private final String limitParam;
+    private final int maxPages;
+    private final MeterRegistry meterRegistry;
+    private final Timer parseTimer;
+    private final DistributionSummary payloadSize;
 
-    public ApiService(HttpClient client, Gson gson, @Value("${app.api.url}") String apiUrl) {
+    public ApiService(HttpClient client, Gson gson, String apiUrl) {
+        this(client, gson, apiUrl, 0, 1, "_page", "_limit");
+    }
+
+    public ApiService(HttpClient client, Gson gson, String apiUrl, int pageSize, int parallelism,
+                      String pageParam, String limitParam) {
+        this(client, gson, apiUrl, pageSize, parallelism, pageParam, limitParam, DEFAULT_MAX_PAGES, new SimpleMeterRegistry());
+    }
+
+    @Autowired
+    public ApiService(HttpClient client, Gson gson,
+                      @Value("${app.api.url}") String apiUrl,
+                      @Value("${app.api.page-size:0}") int pageSize,
+                      @Value("${app.api.parallelism:4}") int parallelism,
+                      @Value("${app.api.page-param:_page}") String pageParam,
+                      @Value("${app.api.limit-param:_limit}") String limitParam,
+                      @Value("${app.api.max-pages:10000}") int maxPages,
+                      MeterRegistry meterRegistry) {
         this.client = client;
         this.gson = gson;
         this.apiUrl = apiUrl;
+        this.pageSize = pageSize;
+        this.parallelism = Math.max(1, parallelism);
+        this.pageParam = pageParam;
+        this.limitParam = limitParam;
+        this.maxPages = Math.max(1, maxPages);
+        this.meterRegistry = meterRegistry;
+        this.parseTimer = Timer.builder("employee.api.parse")
+                .description("Strumieniowe czytanie i parsowanie jednej odpowiedzi API")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.payloadSize = DistributionSummary.builder("employee.api.payload")
+                .description("Rozmiar odpowiedzi API")
+                .baseUnit("bytes")
+                .register(meterRegistry);
     }
 
     public List<Employee> fetchEmployeesFromApi() throws ApiException {
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(apiUrl))
-                .GET()
-                .build();
+        List<Employee> employees = new ArrayList<>();
+        fetchEmployeesFromApi(employees::addAll);
+        return employees;
+    }
 
+    /**
+     * Przekazuje pobranych pracowników do {@code pageConsumer} w wątku wywołującym,
+     * w kolejności stron. Odpowiedź jest czytana strumieniowo, więc jedna strona
+     * może przyjść jako kilka list po najwyżej {@value #CHUNK_SIZE} pracowników.
+     * Zwraca łączną liczbę pobranych pracowników.
+     */
+    public int fetchEmployeesFromApi(Consumer<List<Employee>> pageConsumer) throws ApiException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
         try {
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            int total = fetchAll(pageConsumer);
+            outcome = "success";
+            return total;
+        } finally {
+            sample.stop(Timer.builder("employee.api.fetch")
+                    .description("Pobranie wszystkich pracowników z API")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private int fetchAll(Consumer<List<Employee>> pageConsumer) throws ApiException {
+        if (pageSize <= 0) {
+            return readEmployees(join(fetchAsync(URI.create(apiUrl))), pageConsumer, null, new String[1]);
+        }
+
+        Deque<CompletableFuture<HttpResponse<InputStream>>> inFlight = new ArrayDeque<>();
+        int nextPage = 1;
+        int lastPage = Integer.MAX_VALUE;
+        boolean exhausted = false;
+        String previousFirstEmail = null;
+        int total = 0;
 
-            if (response.statusCode() != 200) {
-                throw new ApiException(String.format("Błąd HTTP: Status %d", response.statusCode()));
+        try {
+            while (true) {
+                while (!exhausted && inFlight.size() < parallelism && nextPage <= lastPage && nextPage <= maxPages) {
+                    inFlight.add(fetchAsync(pageUri(nextPage++)));
+                }
+                if (inFlight.isEmpty()) {
+                    if (!exhausted && lastPage > maxPages) {
+                        throw new ApiException(String.format(
+                                "Przekroczono limit %d stron API (app.api.max-pages).", maxPages));
+                    }
+                    return total;
+                }
+
+                HttpResponse<InputStream> response = join(inFlight.poll());
+                long totalCount = response.headers().firstValueAsLong(TOTAL_COUNT_HEADER).orElse(-1);
+                if (totalCount >= 0) {
+                    lastPage = (int) Math.min(Integer.MAX_VALUE, (totalCount + pageSize - 1) / pageSize);
+                }
+                String[] firstEmail = new String[1];
+                int count = readEmployees(response, pageConsumer, previousFirstEmail, firstEmail);
+                if (count == REPEATED_PAGE || count > pageSize) {
+                    // API ignoruje stronicowanie i zwraca wciąż to samo - strony w locie są porzucane.
+                    return count == REPEATED_PAGE ? total : total + count;
+                }
+                if (count < pageSize) {
+                    // Krótka strona kończy dane - nie zlecamy kolejnych, a te w locie będą puste.
+                    exhausted = true;
+                }
+                previousFirstEmail = firstEmail[0];
+                total += count;
             }
+        } finally {
+            inFlight.forEach(ApiService::discard);
+        }
+    }
+
+    private URI pageUri(int page) {
+        String separator = apiUrl.contains("?") ? "&" : "?";
+        return URI.create(apiUrl + separator + pageParam + "=" + page + "&" + limitParam + "=" + pageSize);
+    }
+
+    private CompletableFuture<HttpResponse<InputStream>> fetchAsync(URI uri) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(uri)
+                .GET()
+                .build();
 
-            return parseJsonToEmployees(response.body());
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        closeQuietly(response.body());
+                        throw new CompletionException(new ApiException(
+                                String.format("Błąd HTTP: Status %d", response.statusCode())));
+                    }
+                    return response;
+                });
+    }
 
-        } catch (IOException | InterruptedException e) {
+    private static <T> T join(CompletableFuture<T> future) throws ApiException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new ApiException("Błąd komunikacji z API.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause()
+                    : e.getCause();
+            if (cause instanceof ApiException apiException) {
+                throw apiException;
+            }
+            if (cause instanceof IOException) {
+                throw new ApiException("Błąd komunikacji z API.", cause);
+            }
+            throw new ApiException("Błąd podczas przetwarzania danych API: " + cause.getMessage(), cause);
         }
     }
 
-    private List<Employee> parseJsonToEmployees(String jsonBody) throws ApiException {
-        List<Employee> employees = new ArrayList<>();
+    // Strony pobrane, ale nieprzeczytane trzeba zamknąć, żeby zwolnić połączenie - także te,
+    // których odpowiedź dopiero nadejdzie (anulowanie zależnej przyszłości nie przerywa wymiany HTTP).
+    private static void discard(CompletableFuture<HttpResponse<InputStream>> future) {
+        future.whenComplete((response, error) -> {
+            if (response != null) {
+                closeQuietly(response.body());
+            }
+        });
+    }
 
+    private static void closeQuietly(InputStream body) {
         try {
-            JsonArray users = gson.fromJson(jsonBody, JsonArray.class);
+            body.close();
+        } catch (IOException ignored) {
+            // połączenie i tak jest porzucane
+        }
+    }
 
-            for (JsonElement element : users) {
-                JsonObject user = element.getAsJsonObject();
+    /**
+     * Czyta tablicę użytkowników tokenami {@link JsonReader}, bez budowania drzewa
+     * {@link JsonArray}: z każdego obiektu brane są tylko {@code name}, {@code email}
+     * i {@code company.name}, pozostałe poddrzewa są pomijane.
+     *
+     * @param repeatedFirstEmail email pierwszego pracownika poprzedniej strony; gdy strona zaczyna się
+     *                           od niego, nic nie trafia do odbiorcy i zwracane jest {@link #REPEATED_PAGE}
+     * @param firstEmail         tu trafia email pierwszego pracownika strony
+     */
+    private int readEmployees(HttpResponse<InputStream> response, Consumer<List<Employee>> consumer,
+                              String repeatedFirstEmail, String[] firstEmail) throws ApiException {
+        long startNanos = System.nanoTime();
+        // Czas odbiorcy (np. zapisu do magazynu) nie wlicza się do czasu parsowania.
+        long consumerNanos = 0;
+        int count = 0;
+        List<Employee> chunk = new ArrayList<>();
+        CountingInputStream body = new CountingInputStream(response.body());
 
-                String fullName = user.get("name").getAsString();
-                String[] nameParts = fullName.trim().split("\\s+", 2);
+        try (JsonReader reader = gson.newJsonReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                Employee employee = readEmployee(reader);
+                if (count == 0) {
+                    if (employee.getEmail().equals(repeatedFirstEmail)) {
+                        return REPEATED_PAGE;
+                    }
+                    firstEmail[0] = employee.getEmail();
+                }
+                chunk.add(employee);
+                count++;
+                if (chunk.size() == CHUNK_SIZE) {
+                    long consumerStart = System.nanoTime();
+                    consumer.accept(chunk);
+                    consumerNanos += System.nanoTime() - consumerStart;
+                    chunk = new ArrayList<>();
+                }
+            }
+            reader.endArray();
+        } catch (JsonParseException | MalformedJsonException | IllegalStateException | EOFException e) {
+            throw new ApiException("Błąd parsowania JSON z odpowiedzi API.", e);
+        } catch (IOException e) {
+            throw new ApiException("Błąd komunikacji z API.", e);
+        } finally {
+            parseTimer.record(System.nanoTime() - startNanos - consumerNanos, TimeUnit.NANOSECONDS);
+            payloadSize.record(body.bytesRead);
+        }
 
-                String firstName = nameParts.length > 0 ? nameParts[0] : "N/A";
-                String lastName = nameParts.length > 1 ? nameParts[1] : "N/A";
+        if (!chunk.isEmpty()) {
+            consumer.accept(chunk);
+        }
+        return count;
+    }
 
-                String email = user.get("email").getAsString();
-                String companyName = user.getAsJsonObject("company").get("name").getAsString();
+    private static Employee readEmployee(JsonReader reader) throws IOException, ApiException {
+        String fullName = null;
+        String email = null;
+        String companyName = null;
 
-                employees.add(new Employee(
-                        firstName,
-                        lastName,
-                        email,
-                        companyName,
-                        DEFAULT_POSITION
-                ));
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name" -> fullName = reader.nextString();
+                case "email" -> email = reader.nextString();
+                case "company" -> companyName = readCompanyName(reader);
+                default -> reader.skipValue();
             }
+        }
+        reader.endObject();
 
-        } catch (JsonParseException e) {
-            throw new ApiException("Błąd parsowania JSON z odpowiedzi API.", e);
-        } catch (Exception e) {
-            throw new ApiException("Błąd podczas przetwarzania danych API: " + e.getMessage(), e);
+        if (fullName == null || email == null || companyName == null) {
+            throw new ApiException("Błąd podczas przetwarzania danych API: brak pola name, email lub company.name.");
         }
 
-        return employees;
+        String[] nameParts = fullName.trim().split("\\s+", 2);
+        String firstName = nameParts.length > 0 ? nameParts[0] : "N/A";
+        String lastName = nameParts.length > 1 ? nameParts[1] : "N/A";
+
+        return new Employee(
+                firstName,
+                lastName,
+                email,
+                companyName,
+                DEFAULT_POSITION
+        );
+    }
+
+    private static String readCompanyName(JsonReader reader) throws IOException {
+        String name = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("name")) {
+                name = reader.nextString();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return name;
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long bytesRead;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                bytesRead++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                bytesRead += n;
+            }
+            return n;
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,185 +1,378 @@
 package com.techcorp.employee.service;
 
 import com.techcorp.employee.dto.CompanyStatisticsDTO;
+import com.techcorp.employee.dto.SalaryPercentilesDTO;
 import com.techcorp.employee.exception.DuplicateEmailException;
 import com.techcorp.employee.exception.EmployeeNotFoundException;
 import com.techcorp.employee.model.Employee;
 import com.techcorp.employee.model.EmploymentStatus;
 import com.techcorp.employee.model.Position;
+import com.techcorp.employee.repository.EmployeeChangeListener;
+import com.techcorp.employee.repository.EmployeeRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Operacje na danych są mierzone jako {@code employee.service} z tagiem {@code method}.
+ *
+ * Liczniki, średnie i statystyki firm czytają agregaty utrzymywane przy zapisie,
+ * a listy w kolejności nazwisk - indeks nazwisk magazynu, więc nie przeglądają
+ * ani nie sortują pracowników przy odczycie.
+ */
 @Service
 public class EmployeeService {
 
-    private final List<Employee> employees = Collections.synchronizedList(new ArrayList<>());
+    private static final int DEFAULT_STATISTICS_CACHE_SIZE = 1000;
+
+    private final EmployeeRepository repository;
+    private final StatisticsCache statisticsCache;
+
+    public EmployeeService(EmployeeRepository repository) {
+        this(repository, DEFAULT_STATISTICS_CACHE_SIZE);
+    }
+
+    @Autowired
+    public EmployeeService(EmployeeRepository repository,
+                           @Value("${app.statistics.cache-size:1000}") int statisticsCacheSize) {
+        this.repository = repository;
+        this.statisticsCache = new StatisticsCache(statisticsCacheSize);
+        repository.addChangeListener(statisticsCache);
+    }
 
+    @Timed(value = "employee.service", histogram = true)
     public Employee addEmployee(Employee employee) throws DuplicateEmailException {
         if (employee == null || employee.getEmail() == null) {
             throw new IllegalArgumentException("Employee or Email cannot be null");
         }
 
-        if (findEmployeeByEmail(employee.getEmail()).isPresent()) {
+        if (!repository.insert(employee)) {
             throw new DuplicateEmailException("Email " + employee.getEmail() + " already exists.");
         }
-
-        employees.add(employee);
         return employee;
     }
 
+    /**
+     * Dodaje paczkę pracowników w jednej sekcji zapisu magazynu.
+     *
+     * @return dla każdego elementu {@code true}, jeśli został dodany, {@code false} przy duplikacie emaila.
+     */
+    @Timed(value = "employee.service", histogram = true)
+    public boolean[] addEmployees(List<Employee> employees) {
+        for (Employee employee : employees) {
+            if (employee == null || employee.getEmail() == null) {
+                throw new IllegalArgumentException("Employee or Email cannot be null");
+            }
+        }
+        return repository.insertAll(employees);
+    }
+
+    /**
+     * Rejestruje słuchacza zmian magazynu (np. cache odpowiedzi zależnych od danych pracowników).
+     */
+    public void addChangeListener(EmployeeChangeListener listener) {
+        repository.addChangeListener(listener);
+    }
+
+    /**
+     * Wersja danych rosnąca przy każdej zmianie - podstawa ETagów statystyk.
+     */
+    public long getDataVersion() {
+        return repository.version();
+    }
+
+    /**
+     * Identyfikator instancji magazynu - wersje po restarcie liczą się od nowa, więc ETagi go zawierają.
+     */
+    public String getDataEpoch() {
+        return repository.epoch();
+    }
+
+    @Timed(value = "employee.service", histogram = true)
     public List<Employee> getAllEmployees() {
-        return new ArrayList<>(employees);
+        return repository.findAll();
     }
 
+    /**
+     * Strona pracowników w kolejności emaili, zaczynająca się za {@code afterEmail}
+     * ({@code null} - od początku). Pusta lub {@code null} firma oznacza brak filtra.
+     */
+    @Timed(value = "employee.service", histogram = true)
+    public List<Employee> getEmployeesPage(String afterEmail, int limit, String company) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page limit must be positive");
+        }
+        return repository.findPage(afterEmail, limit, company == null || company.isBlank() ? null : company);
+    }
+
+    /**
+     * Strona pracowników w kolejności nazwisk, zaczynająca się za pozycją
+     * ({@code afterLastName}, {@code afterEmail}) ({@code afterEmail == null} - od początku),
+     * z opcjonalnym zakresem przedrostków nazwisk (np. "A"–"C") i filtrem firmy.
+     */
+    @Timed(value = "employee.service", histogram = true)
+    public List<Employee> getEmployeesPageByLastName(String afterLastName, String afterEmail, int limit,
+                                                     String lastNameFrom, String lastNameTo, String company) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page limit must be positive");
+        }
+        return repository.findPageByLastName(afterLastName, afterEmail, limit,
+                blankToNull(lastNameFrom), blankToNull(lastNameTo), blankToNull(company));
+    }
+
+    /**
+     * Wszyscy pracownicy z nazwiskami z zakresu przedrostków ({@code null} - bez ograniczenia)
+     * w kolejności nazwisk; koszt proporcjonalny do liczby wyników.
+     */
+    @Timed(value = "employee.service", histogram = true)
+    public List<Employee> getEmployeesByLastNameRange(String lastNameFrom, String lastNameTo, String company) {
+        return repository.findPageByLastName(null, null, Integer.MAX_VALUE,
+                blankToNull(lastNameFrom), blankToNull(lastNameTo), blankToNull(company));
+    }
+
+    /**
+     * Strumieniowy przegląd pracowników w kolejności emaili, z filtrami wykonywanymi w magazynie.
+     */
+    @Timed(value = "employee.service", histogram = true)
+    public void exportEmployees(String company, EmploymentStatus status, Consumer<Employee> sink) {
+        repository.forEachInEmailOrder(company == null || company.isBlank() ? null : company, status, sink);
+    }
+
+    @Timed(value = "employee.service", histogram = true)
     public Optional<Employee> findEmployeeByEmail(String email) {
         if (email == null) {
             return Optional.empty();
         }
-        return employees.stream()
-                .filter(e -> e.getEmail().equalsIgnoreCase(email))
-                .findFirst();
+        return repository.findByEmail(email);
     }
 
+    @Timed(value = "employee.service", histogram = true)
     public Employee updateEmployee(String email, Employee employeeDetails) throws EmployeeNotFoundException {
-        Employee existingEmployee = findEmployeeByEmail(email)
-                .orElseThrow(() -> new EmployeeNotFoundException("Employee not found with email: " + email));
-
-        existingEmployee.setFirstName(employeeDetails.getFirstName());
-        existingEmployee.setLastName(employeeDetails.getLastName());
-        existingEmployee.setCompany(employeeDetails.getCompany());
-        existingEmployee.setPosition(employeeDetails.getPosition());
-        existingEmployee.setSalary(employeeDetails.getSalary());
-        existingEmployee.setStatus(employeeDetails.getStatus());
-
-        return existingEmployee;
+        Employee updated = email == null ? null : repository.update(email, existingEmployee -> new Employee(
+                employeeDetails.getFirstName(),
+                employeeDetails.getLastName(),
+                existingEmployee.getEmail(),
+                employeeDetails.getCompany(),
+                employeeDetails.getPosition(),
+                employeeDetails.getSalary(),
+                employeeDetails.getStatus()
+        ));
+        if (updated == null) {
+            throw new EmployeeNotFoundException("Employee not found with email: " + email);
+        }
+        return updated;
     }
 
+    @Timed(value = "employee.service", histogram = true)
     public void deleteEmployee(String email) throws EmployeeNotFoundException {
-        Employee employeeToRemove = findEmployeeByEmail(email)
-                .orElseThrow(() -> new EmployeeNotFoundException("Employee not found with email: " + email));
-
-        employees.remove(employeeToRemove);
+        if (email == null || repository.remove(email) == null) {
+            throw new EmployeeNotFoundException("Employee not found with email: " + email);
+        }
     }
 
+    @Timed(value = "employee.service", histogram = true)
     public Employee updateEmployeeStatus(String email, EmploymentStatus status) throws EmployeeNotFoundException {
-        Employee existingEmployee = findEmployeeByEmail(email)
-                .orElseThrow(() -> new EmployeeNotFoundException("Employee not found with email: " + email));
+        Employee updated = email == null ? null : repository.update(email, existingEmployee -> existingEmployee.withStatus(status));
+        if (updated == null) {
+            throw new EmployeeNotFoundException("Employee not found with email: " + email);
+        }
+        return updated;
+    }
+
+    /**
+     * Wstawia nowych albo zastępuje istniejących pracowników w jednej sekcji zapisu magazynu.
+     *
+     * @return dla każdego elementu {@code true}, jeśli został dodany, {@code false}, jeśli zastąpił istniejącego.
+     */
+    @Timed(value = "employee.service", histogram = true)
+    public boolean[] upsertEmployees(List<Employee> employees) {
+        for (Employee employee : employees) {
+            if (employee == null || employee.getEmail() == null) {
+                throw new IllegalArgumentException("Employee or Email cannot be null");
+            }
+        }
+        return repository.upsertAll(employees);
+    }
 
-        existingEmployee.setStatus(status);
-        return existingEmployee;
+    /**
+     * Zmienia statusy w jednej sekcji zapisu magazynu; {@code statuses.get(i)} dotyczy {@code emails.get(i)}.
+     *
+     * @return nowe wersje pracowników, {@code null} dla nieistniejących emaili.
+     */
+    @Timed(value = "employee.service", histogram = true)
+    public Employee[] updateEmployeeStatuses(List<String> emails, List<EmploymentStatus> statuses) {
+        if (emails.size() != statuses.size()) {
+            throw new IllegalArgumentException("Emails and statuses must have the same size");
+        }
+        List<UnaryOperator<Employee>> changes = new ArrayList<>(statuses.size());
+        for (int i = 0; i < statuses.size(); i++) {
+            if (emails.get(i) == null || statuses.get(i) == null) {
+                throw new IllegalArgumentException("Email and status cannot be null");
+            }
+            EmploymentStatus status = statuses.get(i);
+            changes.add(employee -> employee.withStatus(status));
+        }
+        return repository.updateAll(emails, changes);
     }
 
+    @Timed(value = "employee.service", histogram = true)
     public List<Employee> filterByCompany(String companyName) {
-        return employees.stream()
-                .filter(Objects::nonNull)
-                .filter(e -> e.getCompany().equalsIgnoreCase(companyName))
-                .collect(Collectors.toList());
+        if (companyName == null) {
+            return new ArrayList<>();
+        }
+        return repository.findByCompany(companyName);
     }
 
+    @Timed(value = "employee.service", histogram = true)
     public List<Employee> findEmployeesByStatus(EmploymentStatus status) {
-        return employees.stream()
-                .filter(Objects::nonNull)
-                .filter(e -> e.getStatus() == status)
-                .collect(Collectors.toList());
+        return repository.findByStatus(status);
     }
 
+    /**
+     * Pracownicy w kolejności nazwisk (bez rozróżniania wielkości liter), przy takich samych
+     * nazwiskach - emaili; odczyt gotowego indeksu zamiast sortowania.
+     */
+    @Timed(value = "employee.service", histogram = true)
     public List<Employee> sortByLastName() {
-        return employees.stream()
-                .filter(Objects::nonNull)
-                .sorted(Comparator.comparing(Employee::getLastName))
-                .collect(Collectors.toList());
+        return repository.findAllInLastNameOrder();
     }
 
+    @Timed(value = "employee.service", histogram = true)
     public Map<Position, Long> countEmployeesByPosition() {
-        return employees.stream()
-                .filter(Objects::nonNull)
-                .collect(Collectors.groupingBy(
-                        Employee::getPosition,
-                        Collectors.counting()
-                ));
+        return repository.countByPosition();
     }
 
+    @Timed(value = "employee.service", histogram = true)
     public Map<EmploymentStatus, Long> countEmployeesByStatus() {
-        return employees.stream()
-                .filter(Objects::nonNull)
-                .collect(Collectors.groupingBy(
-                        Employee::getStatus,
-                        Collectors.counting()
-                ));
+        return repository.countByStatus();
     }
 
+    @Timed(value = "employee.service", histogram = true)
     public double calculateAverageSalary(String companyName) {
-        Stream<Employee> employeeStream = employees.stream().filter(Objects::nonNull);
-
-        if (companyName != null && !companyName.isBlank()) {
-            employeeStream = employeeStream.filter(e -> e.getCompany().equalsIgnoreCase(companyName));
+        if (companyName == null || companyName.isBlank()) {
+            return statisticsCache.get(StatisticsCache.averageSalary(null), repository::averageSalary);
         }
-
-        return employeeStream
-                .mapToDouble(Employee::getSalary)
-                .average()
-                .orElse(0.0);
+        return statisticsCache.get(StatisticsCache.averageSalary(companyName), () -> repository.companyStatistics(companyName)
+                .map(CompanyStatisticsDTO::getAverageSalary)
+                .orElse(0.0));
     }
 
+    @Timed(value = "employee.service", histogram = true)
     public double calculateAverageSalary() {
         return calculateAverageSalary(null);
     }
 
+    @Timed(value = "employee.service", histogram = true)
     public Optional<Employee> getHighestPaidEmployee() {
-        return employees.stream()
-                .filter(Objects::nonNull)
-                .max(Comparator.comparingDouble(Employee::getSalary));
+        return repository.findHighestPaid();
     }
 
-    public List<Employee> validateSalaryConsistency() {
-        return employees.stream()
-                .filter(Objects::nonNull)
-                .filter(e -> e.getSalary() < e.getPosition().getSalary())
-                .collect(Collectors.toList());
+    /**
+     * Najlepiej zarabiający: globalnie albo, przy podanej firmie, w obrębie firmy
+     * (pusta lista dla nieznanej firmy). Koszt zależy od {@code limit}, nie od liczby pracowników.
+     */
+    @Timed(value = "employee.service", histogram = true)
+    public List<Employee> getTopEarners(String company, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return company == null || company.isBlank()
+                ? repository.findTopEarners(limit)
+                : repository.findTopEarnersByCompany(company, limit);
     }
 
-    public Map<String, CompanyStatisticsDTO> getCompanyStatistics() {
-        return employees.stream()
-                .filter(Objects::nonNull)
-                .collect(Collectors.groupingBy(
-                        Employee::getCompany,
-                        Collectors.collectingAndThen(
-                                Collectors.toList(),
-                                list -> {
-                                    long count = list.size();
-                                    double avgSalary = list.stream().mapToDouble(Employee::getSalary).average().orElse(0.0);
+    /**
+     * Percentyle pensji dla stanowiska albo ({@code position == null}) dla każdego zajętego stanowiska.
+     */
+    @Timed(value = "employee.service", histogram = true)
+    public List<SalaryPercentilesDTO> getSalaryPercentiles(Position position, double... percentiles) {
+        for (double percentile : percentiles) {
+            if (!(percentile > 0 && percentile <= 100)) {
+                throw new IllegalArgumentException("Percentile must be in (0, 100]: " + percentile);
+            }
+        }
+        List<SalaryPercentilesDTO> result = new ArrayList<>();
+        for (Position candidate : position == null ? Position.values() : new Position[]{position}) {
+            repository.salaryPercentiles(candidate, percentiles).ifPresent(result::add);
+        }
+        return result;
+    }
 
-                                    Optional<Employee> topEarnerOpt = list.stream()
-                                            .max(Comparator.comparingDouble(Employee::getSalary));
+    @Timed(value = "employee.service", histogram = true)
+    public Map<Position, Double> getAverageSalaryByPosition() {
+        Position[] positions = Position.values();
+        double[] sums = new double[positions.length];
+        long[] counts = new long[positions.length];
+        repository.salaryTotalsByPosition(sums, counts);
+
+        Map<Position, Double> result = new EnumMap<>(Position.class);
+        for (Position position : positions) {
+            if (counts[position.ordinal()] > 0) {
+                result.put(position, sums[position.ordinal()] / counts[position.ordinal()]);
+            }
+        }
+        return result;
+    }
 
-                                    String highestPaidName = topEarnerOpt.map(Employee::getFullName).orElse("Brak");
-                                    double highestSalary = topEarnerOpt.map(Employee::getSalary).orElse(0.0);
-                                    String companyName = list.isEmpty() ? "N/A" : list.get(0).getCompany();
+    @Timed(value = "employee.service", histogram = true)
+    public List<Employee> validateSalaryConsistency() {
+        return repository.findBelowBaseSalary();
+    }
 
-                                    return new CompanyStatisticsDTO(companyName, count, avgSalary, highestSalary, highestPaidName);
-                                }
-                        )
-                ));
+    @Timed(value = "employee.service", histogram = true)
+    public Map<String, CompanyStatisticsDTO> getCompanyStatistics() {
+        Map<String, CompanyStatisticsDTO> result = new HashMap<>();
+        for (CompanyStatisticsDTO stats : repository.allCompanyStatistics()) {
+            result.put(stats.getCompanyName(), stats);
+        }
+        return result;
     }
 
+    @Timed(value = "employee.service", histogram = true)
+    public Optional<CompanyStatisticsDTO> getCompanyStatistics(String companyName) {
+        if (companyName == null) {
+            return Optional.empty();
+        }
+        return repository.companyStatistics(companyName);
+    }
+
+    @Timed(value = "employee.service", histogram = true)
     public Map<String, Long> getEmployeeCountByPositionString() {
-        return employees.stream()
-                .filter(Objects::nonNull)
-                .collect(Collectors.groupingBy(
-                        e -> e.getPosition().name(),
-                        Collectors.counting()
-                ));
+        return statisticsCache.get(StatisticsCache.positionCounts(), () -> {
+            Map<String, Long> result = new LinkedHashMap<>();
+            countEmployeesByPosition().forEach((position, count) -> result.put(position.name(), count));
+            return Collections.unmodifiableMap(result);
+        });
     }
 
+    @Timed(value = "employee.service", histogram = true)
     public Map<String, Long> getEmployeeCountByStatusString() {
-        return employees.stream()
-                .filter(Objects::nonNull)
-                .collect(Collectors.groupingBy(
-                        e -> e.getStatus().name(),
-                        Collectors.counting()
-                ));
-    }
-}
\ No newline at end of file
+        return statisticsCache.get(StatisticsCache.statusCounts(), () -> {
+            Map<String, Long> result = new LinkedHashMap<>();
+            countEmployeesByStatus().forEach((status, count) -> result.put(status.name(), count));
+            return Collections.unmodifiableMap(result);
+        });
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    /**
+     * Liczniki cache statystyk: trafienia, chybienia, wyrzucenia (LRU), unieważnienia i rozmiar.
+     */
+    public Map<String, Long> getStatisticsCacheMetrics() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        result.put("hits", statisticsCache.getHits());
+        result.put("misses", statisticsCache.getMisses());
+        result.put("evictions", statisticsCache.getEvictions());
+        result.put("invalidations", statisticsCache.getInvalidations());
+        result.put("size", (long) statisticsCache.getSize());
+        return result;
+    }
+}
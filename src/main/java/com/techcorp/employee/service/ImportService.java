@@ -1,99 +1,317 @@
 package com.techcorp.employee.service;
 
-import com.techcorp.employee.exception.DuplicateEmailException;
-import com.techcorp.employee.exception.InvalidDataException;
 import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.ImportError;
+import com.techcorp.employee.model.ImportErrorCode;
 import com.techcorp.employee.model.ImportSummary;
 import com.techcorp.employee.model.Position;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
 import java.io.BufferedReader;
-import java.io.InputStreamReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Import CSV jako potok: wątek wywołujący czyta plik paczkami linii, pula
+ * wątków równolegle parsuje i waliduje paczki, a gotowe paczki są zatwierdzane
+ * w magazynie w kolejności pliku (jedna sekcja zapisu na paczkę). Dzięki temu
+ * numery linii i rozstrzyganie duplikatów są takie same jak przy imporcie sekwencyjnym.
+ * Ścieżka {@code file:} w {@code app.import.csv-file} włącza import z pliku zmapowanego w pamięci.
+ * Czas, liczba wierszy, przepustowość i błędy według rodzaju trafiają do metryk {@code employee.import.*}.
+ * Błędy są zwartymi rekordami {@link ImportError} (najwyżej {@code app.import.max-errors},
+ * reszta jest tylko liczona), a walidacja wiersza nie rzuca wyjątków.
+ */
 @Service
 public class ImportService {
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final int DEFAULT_MAX_ERRORS = 1000;
+    private static final String FILE_PREFIX = "file:";
+    private static final Map<String, Position> POSITIONS = new HashMap<>();
+
+    static {
+        for (Position position : Position.values()) {
+            POSITIONS.put(position.name(), position);
+        }
+    }
+
     private final EmployeeService employeeService;
     private final String csvFilePath;
+    private final int parallelism;
+    private final int batchSize;
+    private final int maxErrors;
+    private final Timer importTimer;
+    private final Counter rowsCounter;
+    private final Counter importedCounter;
+    private final DistributionSummary throughput;
+    private final Counter[] errorCounters = new Counter[ImportErrorCode.values().length];
+
+    public ImportService(EmployeeService employeeService, String csvFilePath) {
+        this(employeeService, csvFilePath, 0, DEFAULT_BATCH_SIZE);
+    }
 
+    public ImportService(EmployeeService employeeService, String csvFilePath, int parallelism, int batchSize) {
+        this(employeeService, csvFilePath, parallelism, batchSize, DEFAULT_MAX_ERRORS, new SimpleMeterRegistry());
+    }
+
+    @Autowired
     public ImportService(EmployeeService employeeService,
-                         @Value("${app.import.csv-file}") String csvFilePath) {
+                         @Value("${app.import.csv-file}") String csvFilePath,
+                         @Value("${app.import.parallelism:0}") int parallelism,
+                         @Value("${app.import.batch-size:1000}") int batchSize,
+                         @Value("${app.import.max-errors:1000}") int maxErrors,
+                         MeterRegistry meterRegistry) {
         this.employeeService = employeeService;
         this.csvFilePath = csvFilePath;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.batchSize = Math.max(1, batchSize);
+        this.maxErrors = Math.max(0, maxErrors);
+
+        this.importTimer = Timer.builder("employee.import.duration")
+                .description("Czas importu CSV")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rowsCounter = Counter.builder("employee.import.rows")
+                .description("Przetworzone wiersze CSV")
+                .register(meterRegistry);
+        this.importedCounter = Counter.builder("employee.import.imported")
+                .description("Pracownicy dodani z CSV")
+                .register(meterRegistry);
+        this.throughput = DistributionSummary.builder("employee.import.throughput")
+                .description("Przepustowość pojedynczego importu")
+                .baseUnit("rows/s")
+                .register(meterRegistry);
+        for (ImportErrorCode code : ImportErrorCode.values()) {
+            errorCounters[code.ordinal()] = Counter.builder("employee.import.errors")
+                    .description("Błędy i ostrzeżenia importu według rodzaju")
+                    .tag("type", code.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
     }
 
     public ImportSummary importFromCsv() throws IOException {
-        int importedCount = 0;
-        List<String> errors = new ArrayList<>();
-        int lineNumber = 0;
-
+        if (csvFilePath.startsWith(FILE_PREFIX)) {
+            return importFromFile(Path.of(csvFilePath.substring(FILE_PREFIX.length())));
+        }
         ClassPathResource resource = new ClassPathResource(csvFilePath.replace("classpath:", ""));
+        try (InputStream in = resource.getInputStream()) {
+            return importFromStream(in);
+        }
+    }
 
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(resource.getInputStream()))) {
+    /**
+     * Import z systemu plików przez {@link MappedCsvReader}: plik jest mapowany
+     * w pamięci i parsowany bez tworzenia obiektów dla każdej linii.
+     */
+    public ImportSummary importFromFile(Path path) throws IOException {
+        return importFromFile(path, Integer.MAX_VALUE);
+    }
+
+    ImportSummary importFromFile(Path path, long maxWindowBytes) throws IOException {
+        long startNanos = System.nanoTime();
+        ImportProgress progress = new ImportProgress();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            new MappedCsvReader(channel, maxWindowBytes, batchSize, maxErrors, batch -> commit(batch, progress)).read();
+        }
+        return finish(progress, startNanos);
+    }
+
+    public ImportSummary importFromStream(InputStream in) throws IOException {
+        long startNanos = System.nanoTime();
+        ImportProgress progress = new ImportProgress();
+        Deque<Future<ParsedBatch>> inFlight = new ArrayDeque<>();
+        int maxInFlight = parallelism * 2;
+
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+             ExecutorService workers = Executors.newFixedThreadPool(parallelism)) {
+            int lineNumber = 0;
             if (br.readLine() != null) {
                 lineNumber++;
             }
 
+            List<String> lines = new ArrayList<>(batchSize);
+            int firstLineNumber = lineNumber + 1;
             String line;
             while ((line = br.readLine()) != null) {
                 lineNumber++;
-                if (line.trim().isEmpty()) {
-                    continue;
+                lines.add(line);
+                if (lines.size() == batchSize) {
+                    submit(workers, inFlight, lines, firstLineNumber, maxErrors);
+                    lines = new ArrayList<>(batchSize);
+                    firstLineNumber = lineNumber + 1;
+                    if (inFlight.size() >= maxInFlight) {
+                        commit(await(inFlight.poll()), progress);
+                    }
                 }
+            }
+            if (!lines.isEmpty()) {
+                submit(workers, inFlight, lines, firstLineNumber, maxErrors);
+            }
+            while (!inFlight.isEmpty()) {
+                commit(await(inFlight.poll()), progress);
+            }
+        }
 
-                try {
-                    String[] data = line.split(",", -1);
-                    if (data.length < 6) {
-                        throw new InvalidDataException("Za mało kolumn w wierszu (wymagane 6).");
-                    }
+        return finish(progress, startNanos);
+    }
 
-                    String firstName = data[0].trim();
-                    String lastName = data[1].trim();
-                    String email = data[2].trim();
-                    String company = data[3].trim();
-                    String positionName = data[4].trim().toUpperCase();
-                    double salaryFromCsv = Double.parseDouble(data[5].trim());
-
-                    Position position;
-                    try {
-                        position = Position.valueOf(positionName);
-                    } catch (IllegalArgumentException e) {
-                        throw new InvalidDataException("Nieznane stanowisko: " + positionName);
-                    }
+    private ImportSummary finish(ImportProgress progress, long startNanos) {
+        long durationNanos = System.nanoTime() - startNanos;
+        Map<ImportErrorCode, Long> counts = new EnumMap<>(ImportErrorCode.class);
+        for (ImportErrorCode code : ImportErrorCode.values()) {
+            if (progress.codeCounts[code.ordinal()] > 0) {
+                counts.put(code, progress.codeCounts[code.ordinal()]);
+            }
+        }
+        ImportSummary summary = new ImportSummary(progress.importedCount, progress.errors, counts,
+                progress.processedRows, durationNanos / 1_000_000);
 
-                    if (salaryFromCsv <= 0) {
-                        throw new InvalidDataException("Wynagrodzenie musi być dodatnie: " + salaryFromCsv);
-                    }
+        importTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+        rowsCounter.increment(progress.processedRows);
+        importedCounter.increment(progress.importedCount);
+        throughput.record(summary.getRowsPerSecond());
+        for (int i = 0; i < errorCounters.length; i++) {
+            if (progress.codeCounts[i] > 0) {
+                errorCounters[i].increment(progress.codeCounts[i]);
+            }
+        }
+        return summary;
+    }
 
-                    Employee employee = new Employee(firstName, lastName, email, company, position, salaryFromCsv);
+    private static void submit(ExecutorService workers, Deque<Future<ParsedBatch>> inFlight,
+                               List<String> lines, int firstLineNumber, int maxErrors) {
+        inFlight.add(workers.submit(() -> parseBatch(lines, firstLineNumber, maxErrors)));
+    }
 
-                    if (employee.getSalary() < employee.getPosition().getSalary()) {
-                        errors.add(String.format(
-                                "Linia %d: Ostrzeżenie - pensja (%.2f) niższa niż bazowa (%.2f) dla %s. Pracownik dodany.",
-                                lineNumber, employee.getSalary(), employee.getPosition().getSalary(), positionName
-                        ));
-                    }
+    private static ParsedBatch await(Future<ParsedBatch> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import CSV przerwany.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Błąd parsowania paczki CSV: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
 
-                    try {
-                        employeeService.addEmployee(employee);
-                        importedCount++;
-                    } catch (DuplicateEmailException e) {
-                        errors.add(String.format("Linia %d: Duplikat emaila '%s'.", lineNumber, email));
-                    }
+    private void commit(ParsedBatch batch, ImportProgress progress) {
+        boolean[] inserted = batch.employees.isEmpty()
+                ? new boolean[0]
+                : employeeService.addEmployees(batch.employees);
 
-                } catch (InvalidDataException e) {
-                    errors.add(String.format("Linia %d: Błąd danych - %s", lineNumber, e.getMessage()));
-                } catch (NumberFormatException e) {
-                    errors.add(String.format("Linia %d: Błąd formatu liczby dla wynagrodzenia.", lineNumber));
-                } catch (Exception e) {
-                    errors.add(String.format("Linia %d: Nieoczekiwany błąd - %s", lineNumber, e.getMessage()));
+        // Scalenie problemów parsera z duplikatami wykrytymi przy zapisie, w kolejności linii.
+        int errorIndex = 0;
+        for (int i = 0; i < inserted.length; i++) {
+            int lineNumber = batch.employeeLines[i];
+            while (errorIndex < batch.errors.size() && batch.errors.get(errorIndex).lineNumber() <= lineNumber) {
+                progress.addError(batch.errors.get(errorIndex++));
+            }
+            if (inserted[i]) {
+                progress.importedCount++;
+            } else {
+                progress.codeCounts[ImportErrorCode.DUPLICATE_EMAIL.ordinal()]++;
+                if (progress.errors.size() < maxErrors) {
+                    progress.errors.add(new ImportError(lineNumber, ImportErrorCode.DUPLICATE_EMAIL,
+                            batch.employees.get(i).getEmail(), 0.0));
                 }
             }
         }
-        return new ImportSummary(importedCount, errors);
+        while (errorIndex < batch.errors.size()) {
+            progress.addError(batch.errors.get(errorIndex++));
+        }
+        for (int i = 0; i < batch.codeCounts.length; i++) {
+            progress.codeCounts[i] += batch.codeCounts[i];
+        }
+        progress.processedRows += batch.rowCount;
+    }
+
+    private static ParsedBatch parseBatch(List<String> lines, int firstLineNumber, int maxErrors) {
+        ParsedBatch batch = new ParsedBatch(lines.size(), maxErrors);
+        int lineNumber = firstLineNumber - 1;
+        for (String line : lines) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            batch.rowCount++;
+
+            try {
+                parseRow(batch, line, lineNumber);
+            } catch (RuntimeException e) {
+                batch.addError(lineNumber, ImportErrorCode.UNEXPECTED, e.getMessage(), 0.0);
+            }
+        }
+        return batch;
+    }
+
+    private static void parseRow(ParsedBatch batch, String line, int lineNumber) {
+        String[] data = line.split(",", -1);
+        if (data.length < 6) {
+            batch.addError(lineNumber, ImportErrorCode.TOO_FEW_COLUMNS);
+            return;
+        }
+
+        double salary = SalaryParser.parse(data[5].trim());
+        if (Double.isNaN(salary)) {
+            batch.addError(lineNumber, ImportErrorCode.INVALID_NUMBER);
+            return;
+        }
+
+        String positionName = data[4].trim().toUpperCase();
+        Position position = POSITIONS.get(positionName);
+        if (position == null) {
+            batch.addError(lineNumber, ImportErrorCode.UNKNOWN_POSITION, positionName, 0.0);
+            return;
+        }
+
+        if (salary <= 0) {
+            batch.addError(lineNumber, ImportErrorCode.NON_POSITIVE_SALARY, null, salary);
+            return;
+        }
+
+        Employee employee = new Employee(data[0].trim(), data[1].trim(), data[2].trim(), data[3].trim(), position, salary);
+        if (salary < position.getSalary()) {
+            batch.addError(lineNumber, ImportErrorCode.SALARY_BELOW_BASE, position.name(), salary);
+        }
+        batch.addEmployee(lineNumber, employee);
+    }
+
+    private final class ImportProgress {
+        private final List<ImportError> errors = new ArrayList<>();
+        private final long[] codeCounts = new long[ImportErrorCode.values().length];
+        private int importedCount;
+        private long processedRows;
+
+        // Liczniki paczki są dodawane osobno; tu tylko zapamiętanie w granicy limitu.
+        private void addError(ImportError error) {
+            if (errors.size() < maxErrors) {
+                errors.add(error);
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,247 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.ImportErrorCode;
+import com.techcorp.employee.model.Position;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Parser CSV działający bezpośrednio na pliku zmapowanym w pamięci.
+ *
+ * Pola są wyznaczane jako zakresy bajtów, pensja jest parsowana z bajtów bez
+ * tworzenia {@code String}, a stanowisko porównywane bajt po bajcie z nazwami
+ * enuma. Obiekty {@link String} i {@link Employee} powstają wyłącznie dla
+ * wierszy, które przeszły walidację (oraz dla wartości w zapamiętanych błędach).
+ * Plik jest mapowany oknami, więc obsługiwane są również pliki powyżej 2 GB.
+ */
+final class MappedCsvReader {
+
+    private static final int FIELD_COUNT = 6;
+    private static final byte[][] POSITION_NAMES = new byte[Position.values().length][];
+
+    static {
+        for (Position position : Position.values()) {
+            POSITION_NAMES[position.ordinal()] = position.name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final FileChannel channel;
+    private final long maxWindowBytes;
+    private final int batchSize;
+    private final int maxErrors;
+    private final Consumer<ParsedBatch> sink;
+
+    private final int[] fieldStarts = new int[FIELD_COUNT];
+    private final int[] fieldEnds = new int[FIELD_COUNT];
+    private byte[] scratch = new byte[256];
+    private final WindowChars windowChars = new WindowChars();
+
+    private ParsedBatch batch;
+    private int linesInBatch;
+    private int lineNumber;
+
+    MappedCsvReader(FileChannel channel, long maxWindowBytes, int batchSize, int maxErrors, Consumer<ParsedBatch> sink) {
+        this.channel = channel;
+        this.maxWindowBytes = Math.min(maxWindowBytes, Integer.MAX_VALUE);
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+        this.sink = sink;
+    }
+
+    void read() throws IOException {
+        long size = channel.size();
+        long position = 0;
+        batch = new ParsedBatch(batchSize, maxErrors);
+
+        while (position < size) {
+            long windowSize = Math.min(maxWindowBytes, size - position);
+            boolean lastWindow = position + windowSize == size;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+            int limit = (int) windowSize;
+
+            int lineStart = 0;
+            for (int i = 0; i < limit; i++) {
+                if (buffer.get(i) == '\n') {
+                    processLine(buffer, lineStart, i);
+                    lineStart = i + 1;
+                }
+            }
+
+            if (lastWindow) {
+                if (lineStart < limit) {
+                    processLine(buffer, lineStart, limit);
+                }
+                position = size;
+            } else {
+                if (lineStart == 0) {
+                    throw new IOException("Linia " + (lineNumber + 1) + " jest dłuższa niż okno mapowania (" + maxWindowBytes + " B).");
+                }
+                // Niepełna ostatnia linia okna zostanie przeczytana w następnym oknie.
+                position += lineStart;
+            }
+        }
+
+        if (linesInBatch > 0) {
+            sink.accept(batch);
+        }
+    }
+
+    private void processLine(MappedByteBuffer buffer, int start, int end) {
+        lineNumber++;
+        if (lineNumber == 1) {
+            return;
+        }
+        parseRow(buffer, start, end);
+        if (++linesInBatch == batchSize) {
+            sink.accept(batch);
+            batch = new ParsedBatch(batchSize, maxErrors);
+            linesInBatch = 0;
+        }
+    }
+
+    private void parseRow(MappedByteBuffer buffer, int start, int end) {
+        start = skipLeading(buffer, start, end);
+        end = skipTrailing(buffer, start, end);
+        if (start == end) {
+            return;
+        }
+        batch.rowCount++;
+
+        int field = 0;
+        int fieldStart = start;
+        for (int i = start; i <= end && field < FIELD_COUNT; i++) {
+            if (i == end || buffer.get(i) == ',') {
+                fieldStarts[field] = skipLeading(buffer, fieldStart, i);
+                fieldEnds[field] = skipTrailing(buffer, fieldStarts[field], i);
+                field++;
+                fieldStart = i + 1;
+            }
+        }
+        if (field < FIELD_COUNT) {
+            batch.addError(lineNumber, ImportErrorCode.TOO_FEW_COLUMNS);
+            return;
+        }
+
+        double salary = parseSalary(buffer, fieldStarts[5], fieldEnds[5]);
+        if (Double.isNaN(salary)) {
+            batch.addError(lineNumber, ImportErrorCode.INVALID_NUMBER);
+            return;
+        }
+
+        Position position = matchPosition(buffer, fieldStarts[4], fieldEnds[4]);
+        if (position == null) {
+            String name = batch.recordsErrors() ? decode(buffer, fieldStarts[4], fieldEnds[4]).toUpperCase() : null;
+            batch.addError(lineNumber, ImportErrorCode.UNKNOWN_POSITION, name, 0.0);
+            return;
+        }
+
+        if (salary <= 0) {
+            batch.addError(lineNumber, ImportErrorCode.NON_POSITIVE_SALARY, null, salary);
+            return;
+        }
+
+        Employee employee = new Employee(
+                decode(buffer, fieldStarts[0], fieldEnds[0]),
+                decode(buffer, fieldStarts[1], fieldEnds[1]),
+                decode(buffer, fieldStarts[2], fieldEnds[2]),
+                decode(buffer, fieldStarts[3], fieldEnds[3]),
+                position,
+                salary
+        );
+        if (salary < position.getSalary()) {
+            batch.addError(lineNumber, ImportErrorCode.SALARY_BELOW_BASE, position.name(), salary);
+        }
+        batch.addEmployee(lineNumber, employee);
+    }
+
+    /**
+     * Pensja z bajtów pola przez {@link SalaryParser} na widoku okna - bez tworzenia {@code String}
+     * dla zapisów {@code [+-]cyfry[.cyfry]}.
+     *
+     * @return wartość albo NaN, gdy pole nie jest liczbą
+     */
+    double parseSalary(MappedByteBuffer buffer, int start, int end) {
+        windowChars.buffer = buffer;
+        return SalaryParser.parse(windowChars, start, end);
+    }
+
+    private static Position matchPosition(MappedByteBuffer buffer, int start, int end) {
+        int length = end - start;
+        for (Position position : Position.values()) {
+            byte[] name = POSITION_NAMES[position.ordinal()];
+            if (name.length != length) {
+                continue;
+            }
+            int i = 0;
+            while (i < length && toUpperAscii(buffer.get(start + i)) == name[i]) {
+                i++;
+            }
+            if (i == length) {
+                return position;
+            }
+        }
+        return null;
+    }
+
+    private String decode(MappedByteBuffer buffer, int start, int end) {
+        int length = end - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static byte toUpperAscii(byte b) {
+        return b >= 'a' && b <= 'z' ? (byte) (b - ('a' - 'A')) : b;
+    }
+
+    // Odpowiednik String.trim(): pomija bajty <= ' ' (bajty wielobajtowych znaków UTF-8 są >= 0x80).
+    private static int skipLeading(MappedByteBuffer buffer, int start, int end) {
+        while (start < end && (buffer.get(start) & 0xFF) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int skipTrailing(MappedByteBuffer buffer, int start, int end) {
+        while (end > start && (buffer.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Bajty okna jako znaki (ASCII; bajty spoza ASCII dają znaki, których parser nie przyjmie).
+     */
+    private static final class WindowChars implements CharSequence {
+        private MappedByteBuffer buffer;
+
+        @Override
+        public int length() {
+            return buffer.limit();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buffer.get(index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            byte[] bytes = new byte[end - start];
+            buffer.get(start, bytes);
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, length()).toString();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.ImportError;
+import com.techcorp.employee.model.ImportErrorCode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Paczka sparsowanych wierszy CSV: poprawni pracownicy z numerami linii
+ * oraz problemy parsera, obie listy w kolejności pliku, plus liczniki
+ * problemów według rodzaju (indeks = {@link ImportErrorCode#ordinal()}).
+ * Paczka zapamiętuje najwyżej {@code maxErrors} problemów - więcej i tak
+ * nie zmieści się w podsumowaniu - ale liczy wszystkie.
+ */
+final class ParsedBatch {
+    final List<Employee> employees;
+    final int[] employeeLines;
+    final List<ImportError> errors = new ArrayList<>();
+    final int[] codeCounts = new int[ImportErrorCode.values().length];
+    private final int maxErrors;
+    int rowCount;
+
+    ParsedBatch(int capacity, int maxErrors) {
+        this.employees = new ArrayList<>(capacity);
+        this.employeeLines = new int[capacity];
+        this.maxErrors = maxErrors;
+    }
+
+    void addEmployee(int lineNumber, Employee employee) {
+        employeeLines[employees.size()] = lineNumber;
+        employees.add(employee);
+    }
+
+    /**
+     * Czy kolejny problem zostanie zapamiętany; pozwala nie budować wartości, która przepadnie.
+     */
+    boolean recordsErrors() {
+        return errors.size() < maxErrors;
+    }
+
+    void addError(int lineNumber, ImportErrorCode code) {
+        addError(lineNumber, code, null, 0.0);
+    }
+
+    void addError(int lineNumber, ImportErrorCode code, String value, double number) {
+        codeCounts[code.ordinal()]++;
+        if (recordsErrors()) {
+            errors.add(new ImportError(lineNumber, code, value, number));
+        }
+    }
+}
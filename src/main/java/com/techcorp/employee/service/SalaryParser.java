@@ -0,0 +1,95 @@
+package com.techcorp.employee.service;
+
+/**
+ * Parsowanie pensji z CSV bez wyjątków na typowych błędnych danych.
+ * Zapisy {@code [+-]cyfry[.cyfry]} są liczone bezpośrednio (wynik identyczny
+ * z {@link Double#parseDouble}, bo mantysa i potęga dziesięciu są dokładne,
+ * a jedno dzielenie jest poprawnie zaokrąglane). Do {@link Double#parseDouble}
+ * trafiają tylko teksty złożone z cyfr, znaków i wykładnika, więc wyjątek
+ * (ze śladem stosu) powstaje wyłącznie dla rzadkich zapisów typu {@code "1e"}.
+ */
+final class SalaryParser {
+
+    static final double INVALID = Double.NaN;
+
+    private static final double[] POWERS_OF_TEN = new double[23];
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    static {
+        double power = 1.0;
+        for (int i = 0; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = power;
+            power *= 10.0;
+        }
+    }
+
+    private SalaryParser() {
+    }
+
+    /**
+     * @return wartość albo {@link #INVALID} (NaN), gdy tekst nie jest liczbą.
+     */
+    static double parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    /**
+     * Jak {@link #parse(CharSequence)}, ale dla fragmentu {@code [from, to)} - bez kopiowania
+     * tekstu; czytnik zmapowanego pliku podaje tu widok na bajty okna.
+     */
+    static double parse(CharSequence text, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean dot = false;
+        for (; i < to; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (dot) {
+                    fractionDigits++;
+                }
+                if (mantissa > MAX_EXACT_MANTISSA || fractionDigits >= POWERS_OF_TEN.length) {
+                    return parseSlow(text, from, to);
+                }
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                return parseSlow(text, from, to);
+            }
+        }
+        if (digits == 0) {
+            return INVALID;
+        }
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    private static double parseSlow(CharSequence text, int from, int to) {
+        boolean hasDigit = false;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                hasDigit = true;
+            } else if (c != '.' && c != '-' && c != '+' && c != 'e' && c != 'E') {
+                return INVALID;
+            }
+        }
+        if (!hasDigit) {
+            return INVALID;
+        }
+        try {
+            return Double.parseDouble(text.subSequence(from, to).toString());
+        } catch (NumberFormatException e) {
+            return INVALID;
+        }
+    }
+}
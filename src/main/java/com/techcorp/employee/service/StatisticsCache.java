@@ -0,0 +1,155 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.repository.CompanyDictionary;
+import com.techcorp.employee.repository.EmployeeChangeListener;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Ograniczony (LRU) cache wyników statystyk, unieważniany precyzyjnie przez zmiany w magazynie:
+ * zmiana statusu unieważnia tylko liczniki statusów, zmiana pensji - średnie globalną i firmy itd.
+ *
+ * Unieważnienia są zbierane w {@link #onChange} i stosowane w {@link #afterWrite}, czyli po
+ * opublikowaniu zmian przez magazyn. Każde unieważnienie podbija generację; wynik policzony
+ * w trakcie unieważnienia nie jest zapisywany, więc cache nie utrwala nieaktualnych wartości.
+ */
+public class StatisticsCache implements EmployeeChangeListener {
+
+    enum Kind { POSITION_COUNTS, STATUS_COUNTS, AVERAGE_SALARY }
+
+    record Key(Kind kind, String company) {
+        static final String ALL = "";
+    }
+
+    private final Map<Key, Object> entries;
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    // Magazyn nie woła słuchaczy współbieżnie, więc dostęp jest jednowątkowy.
+    private boolean positionsDirty;
+    private boolean statusesDirty;
+    private boolean globalAverageDirty;
+    private final Set<String> dirtyCompanies = new HashSet<>();
+
+    public StatisticsCache(int maxEntries) {
+        int capacity = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                if (size() > capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T get(Key key, Supplier<T> loader) {
+        long startGeneration;
+        synchronized (this) {
+            Object cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return (T) cached;
+            }
+            misses++;
+            startGeneration = generation;
+        }
+        T value = loader.get();
+        synchronized (this) {
+            if (startGeneration == generation) {
+                entries.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    static Key positionCounts() {
+        return new Key(Kind.POSITION_COUNTS, Key.ALL);
+    }
+
+    static Key statusCounts() {
+        return new Key(Kind.STATUS_COUNTS, Key.ALL);
+    }
+
+    static Key averageSalary(String company) {
+        return new Key(Kind.AVERAGE_SALARY, company == null ? Key.ALL : CompanyDictionary.normalize(company));
+    }
+
+    @Override
+    public void onChange(Employee before, Employee after) {
+        if (before == null || after == null) {
+            positionsDirty = true;
+            statusesDirty = true;
+            globalAverageDirty = true;
+            markCompany(before);
+            markCompany(after);
+            return;
+        }
+        positionsDirty |= before.getPosition() != after.getPosition();
+        statusesDirty |= before.getStatus() != after.getStatus();
+        boolean salaryChanged = Double.compare(before.getSalary(), after.getSalary()) != 0;
+        globalAverageDirty |= salaryChanged;
+        if (salaryChanged || before.getCompanyId() != after.getCompanyId()) {
+            markCompany(before);
+            markCompany(after);
+        }
+    }
+
+    @Override
+    public synchronized void afterWrite() {
+        if (!positionsDirty && !statusesDirty && !globalAverageDirty && dirtyCompanies.isEmpty()) {
+            return;
+        }
+        generation++;
+        if (positionsDirty) {
+            invalidate(positionCounts());
+        }
+        if (statusesDirty) {
+            invalidate(statusCounts());
+        }
+        if (globalAverageDirty) {
+            invalidate(new Key(Kind.AVERAGE_SALARY, Key.ALL));
+        }
+        for (String company : dirtyCompanies) {
+            invalidate(new Key(Kind.AVERAGE_SALARY, company));
+        }
+        positionsDirty = false;
+        statusesDirty = false;
+        globalAverageDirty = false;
+        dirtyCompanies.clear();
+    }
+
+    private void invalidate(Key key) {
+        if (entries.remove(key) != null) {
+            invalidations++;
+        }
+    }
+
+    private void markCompany(Employee employee) {
+        String key = companyKey(employee);
+        if (key != null) {
+            dirtyCompanies.add(key);
+        }
+    }
+
+    private static String companyKey(Employee employee) {
+        return employee == null || employee.getCompany() == null ? null : CompanyDictionary.normalize(employee.getCompany());
+    }
+
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getEvictions() { return evictions; }
+    public synchronized long getInvalidations() { return invalidations; }
+    public synchronized int getSize() { return entries.size(); }
+}
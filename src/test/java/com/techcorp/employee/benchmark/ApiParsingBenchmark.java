@@ -0,0 +1,92 @@
+package com.techcorp.employee.benchmark;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpServer;
+import com.techcorp.employee.exception.ApiException;
+import com.techcorp.employee.service.ApiService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pobranie i strumieniowe parsowanie odpowiedzi /users przez ApiService z lokalnego
+ * serwera (bez sieci), w trybie jednego żądania i w trybie stronicowanym.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiParsingBenchmark {
+
+    private static final int COMPANIES = 100;
+    private static final byte[] EMPTY = "[]".getBytes(StandardCharsets.UTF_8);
+
+    @Param({"1000", "100000"})
+    private int users;
+
+    @Param({"0", "1000"})
+    private int pageSize;
+
+    private HttpServer server;
+    private ApiService apiService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        byte[] body = BenchmarkData.usersJson(users, COMPANIES);
+        List<byte[]> pages = new ArrayList<>();
+        if (pageSize > 0) {
+            for (int from = 0; from < users; from += pageSize) {
+                pages.add(BenchmarkData.usersJson(from, Math.min(pageSize, users - from), COMPANIES));
+            }
+        }
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.createContext("/users", exchange -> {
+            byte[] response = body;
+            String query = exchange.getRequestURI().getQuery();
+            if (query != null) {
+                // _page=N&_limit=L, strony liczone od 1
+                int page = Integer.parseInt(query.substring(query.indexOf('=') + 1, query.indexOf('&')));
+                response = page <= pages.size() ? pages.get(page - 1) : EMPTY;
+            }
+            exchange.getResponseHeaders().add("X-Total-Count", String.valueOf(users));
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.start();
+        apiService = new ApiService(HttpClient.newHttpClient(), new Gson(),
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/users", pageSize, 4, "_page", "_limit");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Benchmark
+    public int fetchAndParse() throws ApiException {
+        return apiService.fetchEmployeesFromApi(page -> { });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ApiParsingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,100 @@
+package com.techcorp.employee.benchmark;
+
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.EmploymentStatus;
+import com.techcorp.employee.model.Position;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministyczny generator danych do benchmarków: N pracowników w M firmach.
+ * Pracownik {@code i} ma zawsze ten sam email, firmę, stanowisko, pensję i status,
+ * więc wyniki kolejnych uruchomień są porównywalne.
+ */
+public final class BenchmarkData {
+
+    private static final Position[] POSITIONS = Position.values();
+
+    private BenchmarkData() {
+    }
+
+    public static String email(int id) {
+        return "jan" + id + "@techcorp.com";
+    }
+
+    public static String company(int id, int companies) {
+        return "Company" + (id % companies);
+    }
+
+    public static Employee employee(int id, int companies) {
+        Position position = POSITIONS[id % POSITIONS.length];
+        EmploymentStatus status = id % 25 == 0 ? EmploymentStatus.TERMINATED
+                : id % 10 == 0 ? EmploymentStatus.ON_LEAVE
+                : EmploymentStatus.ACTIVE;
+        return new Employee("Jan" + id, "Kowalski" + id, email(id), company(id, companies),
+                position, salary(id, position), status);
+    }
+
+    public static List<Employee> employees(int count, int companies) {
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            employees.add(employee(i, companies));
+        }
+        return employees;
+    }
+
+    /**
+     * Plik CSV w formacie importu (z nagłówkiem) w katalogu tymczasowym.
+     */
+    public static Path writeCsv(int count, int companies) throws IOException {
+        Path file = Files.createTempFile("employees-benchmark", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("firstName,lastName,email,company,position,salary\n");
+            for (int i = 0; i < count; i++) {
+                Employee e = employee(i, companies);
+                writer.write(e.getFirstName() + "," + e.getLastName() + "," + e.getEmail() + "," + e.getCompany()
+                        + "," + e.getPosition().name() + "," + e.getSalary() + "\n");
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Odpowiedź API w formacie jsonplaceholder (/users), z polami, które parser ma pomijać.
+     */
+    public static byte[] usersJson(int count, int companies) {
+        return usersJson(0, count, companies);
+    }
+
+    /**
+     * Fragment odpowiedzi API: pracownicy {@code from .. from + count - 1} (np. jedna strona).
+     */
+    public static byte[] usersJson(int from, int count, int companies) {
+        StringBuilder json = new StringBuilder(count * 400).append('[');
+        for (int i = from; i < from + count; i++) {
+            if (i > from) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"name\":\"Jan").append(i).append(" Kowalski").append(i)
+                    .append("\",\"username\":\"jan").append(i)
+                    .append("\",\"email\":\"").append(email(i))
+                    .append("\",\"address\":{\"street\":\"Kulas Light\",\"suite\":\"Apt. 556\",\"city\":\"Gwenborough\",")
+                    .append("\"zipcode\":\"92998-3874\",\"geo\":{\"lat\":\"-37.3159\",\"lng\":\"81.1496\"}},")
+                    .append("\"phone\":\"1-770-736-8031 x56442\",\"website\":\"hildegard.org\",")
+                    .append("\"company\":{\"name\":\"").append(company(i, companies))
+                    .append("\",\"catchPhrase\":\"Multi-layered client-server neural-net\",\"bs\":\"harness real-time e-markets\"}}");
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static double salary(int id, Position position) {
+        return position.getSalary() + (id * 37L % 2000);
+    }
+}
@@ -0,0 +1,29 @@
+package com.techcorp.employee.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Uruchamia wszystkie benchmarki (albo pasujące do wzorca) i zapisuje wyniki w JSON,
+ * żeby dało się je porównywać między commitami. Wywoływany z profilu {@code benchmark}:
+ * <pre>mvn -Pbenchmark verify -DskipTests</pre>
+ * Argumenty: [plik wyników] [wzorzec nazw benchmarków].
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String resultFile = args.length > 0 ? args[0] : "target/jmh-results.json";
+        String include = args.length > 1 ? args[1] : BenchmarkRunner.class.getPackageName() + ".*";
+
+        new Runner(new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build()).run();
+    }
+}
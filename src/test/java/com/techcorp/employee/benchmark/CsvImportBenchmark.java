@@ -0,0 +1,66 @@
+package com.techcorp.employee.benchmark;
+
+import com.techcorp.employee.model.ImportSummary;
+import com.techcorp.employee.repository.EmployeeRepository;
+import com.techcorp.employee.service.EmployeeService;
+import com.techcorp.employee.service.ImportService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Porównanie importu strumieniowego (BufferedReader + split) z importem
+ * z pliku zmapowanego w pamięci dla tego samego wygenerowanego pliku CSV.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvImportBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    private Path csvFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        csvFile = BenchmarkData.writeCsv(size, 100);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(csvFile);
+    }
+
+    @Benchmark
+    public ImportSummary streamImport() throws IOException {
+        try (InputStream in = Files.newInputStream(csvFile)) {
+            return newImportService().importFromStream(in);
+        }
+    }
+
+    @Benchmark
+    public ImportSummary mappedImport() throws IOException {
+        return newImportService().importFromFile(csvFile);
+    }
+
+    private static ImportService newImportService() {
+        return new ImportService(new EmployeeService(new EmployeeRepository()), "classpath:unused.csv");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CsvImportBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
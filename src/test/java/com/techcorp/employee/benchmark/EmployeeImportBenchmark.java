@@ -0,0 +1,61 @@
+package com.techcorp.employee.benchmark;
+
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.Position;
+import com.techcorp.employee.repository.EmployeeRepository;
+import com.techcorp.employee.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Czas importu N pracowników do pustego serwisu. Przy indeksie po emailu
+ * czas na jeden rekord powinien pozostać stały niezależnie od N.
+ *
+ * Uruchomienie: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.techcorp.employee.benchmark.EmployeeImportBenchmark
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmployeeImportBenchmark {
+
+    @Param({"10000", "100000", "300000"})
+    private int size;
+
+    private List<Employee> employees;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Position[] positions = Position.values();
+        employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Position position = positions[i % positions.length];
+            employees.add(new Employee("Jan" + i, "Kowalski" + i, "jan" + i + "@techcorp.com",
+                    "Company" + (i % 100), position, position.getSalary()));
+        }
+    }
+
+    @Benchmark
+    public EmployeeService importAll() {
+        EmployeeService service = new EmployeeService(new EmployeeRepository());
+        for (Employee employee : employees) {
+            service.addEmployee(employee);
+        }
+        return service;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmployeeImportBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,78 @@
+package com.techcorp.employee.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techcorp.employee.controller.EmployeeJsonCache;
+import com.techcorp.employee.dto.EmployeeDTO;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.Position;
+import com.techcorp.employee.repository.EmployeeRepository;
+import com.techcorp.employee.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Odczyt pojedynczego pracownika: DTO + Jackson przy każdym żądaniu vs bajty z EmployeeJsonCache.
+ * Rozkład czasów (p99) daje tryb SampleTime, alokacje - profiler gc (-prof gc).
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmployeeJsonBenchmark {
+
+    private static final int SIZE = 10_000;
+
+    private ObjectMapper objectMapper;
+    private EmployeeService employeeService;
+    private EmployeeJsonCache cache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        employeeService = new EmployeeService(new EmployeeRepository());
+        Position[] positions = Position.values();
+        for (int i = 0; i < SIZE; i++) {
+            Position position = positions[i % positions.length];
+            employeeService.addEmployee(new Employee("Jan" + i, "Kowalski" + i, email(i),
+                    "Company" + (i % 100), position, position.getSalary()));
+        }
+        cache = new EmployeeJsonCache(objectMapper, employeeService, 64L * 1024 * 1024);
+    }
+
+    @Benchmark
+    public byte[] serializeEachTime() throws Exception {
+        return objectMapper.writeValueAsBytes(toDTO(randomEmployee()));
+    }
+
+    @Benchmark
+    public byte[] cachedBytes() {
+        return cache.get(randomEmployee(), EmployeeJsonBenchmark::toDTO);
+    }
+
+    private Employee randomEmployee() {
+        return employeeService.findEmployeeByEmail(email(ThreadLocalRandom.current().nextInt(SIZE))).orElseThrow();
+    }
+
+    private static EmployeeDTO toDTO(Employee e) {
+        return new EmployeeDTO(e.getFirstName(), e.getLastName(), e.getEmail(), e.getCompany(),
+                e.getPosition(), e.getSalary(), e.getStatus());
+    }
+
+    private static String email(int id) {
+        return "jan" + id + "@techcorp.com";
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmployeeJsonBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
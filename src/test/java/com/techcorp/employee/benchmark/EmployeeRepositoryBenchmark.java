@@ -0,0 +1,93 @@
+package com.techcorp.employee.benchmark;
+
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.EmploymentStatus;
+import com.techcorp.employee.model.Position;
+import com.techcorp.employee.repository.EmployeeRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Przepustowość repozytorium przy 1/4/16/64 wątkach dla mieszanki
+ * 95% odczytów (email, liczniki, statystyki firmy) i 5% zmian statusu.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmployeeRepositoryBenchmark {
+
+    private static final int SIZE = 100_000;
+    private static final int COMPANIES = 100;
+
+    private EmployeeRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = new EmployeeRepository();
+        Position[] positions = Position.values();
+        for (int i = 0; i < SIZE; i++) {
+            Position position = positions[i % positions.length];
+            repository.insert(new Employee("Jan" + i, "Kowalski" + i, email(i),
+                    "Company" + (i % COMPANIES), position, position.getSalary()));
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object mixed_1thread() {
+        return mixedOperation();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object mixed_4threads() {
+        return mixedOperation();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Object mixed_16threads() {
+        return mixedOperation();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Object mixed_64threads() {
+        return mixedOperation();
+    }
+
+    private Object mixedOperation() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int id = random.nextInt(SIZE);
+        int roll = random.nextInt(100);
+        if (roll < 5) {
+            EmploymentStatus status = EmploymentStatus.values()[random.nextInt(EmploymentStatus.values().length)];
+            return repository.update(email(id), e -> e.withStatus(status));
+        }
+        if (roll < 15) {
+            return repository.countByStatus();
+        }
+        if (roll < 25) {
+            return repository.companyStatistics("Company" + (id % COMPANIES));
+        }
+        return repository.findByEmail(email(id));
+    }
+
+    private static String email(int id) {
+        return "jan" + id + "@techcorp.com";
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmployeeRepositoryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
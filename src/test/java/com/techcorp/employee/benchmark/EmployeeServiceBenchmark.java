@@ -0,0 +1,105 @@
+package com.techcorp.employee.benchmark;
+
+import com.techcorp.employee.model.EmploymentStatus;
+import com.techcorp.employee.repository.EmployeeRepository;
+import com.techcorp.employee.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operacje odczytu EmployeeService na N pracownikach w M firmach: wyszukiwanie po emailu,
+ * filtry, statystyki firm i liczniki oraz operacje przechodzące po wszystkich pracownikach.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Benchmark)
+public class EmployeeServiceBenchmark {
+
+    @Param({"10000", "100000"})
+    private int employees;
+
+    @Param({"100"})
+    private int companies;
+
+    private EmployeeService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new EmployeeService(new EmployeeRepository());
+        service.addEmployees(BenchmarkData.employees(employees, companies));
+    }
+
+    @Benchmark
+    public Object findByEmail() {
+        return service.findEmployeeByEmail(BenchmarkData.email(ThreadLocalRandom.current().nextInt(employees)));
+    }
+
+    @Benchmark
+    public Object filterByCompany() {
+        return service.filterByCompany(BenchmarkData.company(ThreadLocalRandom.current().nextInt(companies), companies));
+    }
+
+    @Benchmark
+    public Object findByStatus() {
+        return service.findEmployeesByStatus(EmploymentStatus.ON_LEAVE);
+    }
+
+    @Benchmark
+    public Object companyStatistics() {
+        return service.getCompanyStatistics(BenchmarkData.company(ThreadLocalRandom.current().nextInt(companies), companies));
+    }
+
+    @Benchmark
+    public Object allCompanyStatistics() {
+        return service.getCompanyStatistics();
+    }
+
+    @Benchmark
+    public Object countByStatus() {
+        return service.countEmployeesByStatus();
+    }
+
+    @Benchmark
+    public Object highestPaidEmployee() {
+        return service.getHighestPaidEmployee();
+    }
+
+    @Benchmark
+    public Object topEarners() {
+        return service.getTopEarners(null, 10);
+    }
+
+    @Benchmark
+    public Object companyTopEarners() {
+        return service.getTopEarners(BenchmarkData.company(ThreadLocalRandom.current().nextInt(companies), companies), 10);
+    }
+
+    @Benchmark
+    public Object salaryPercentiles() {
+        return service.getSalaryPercentiles(null, 50, 90, 99);
+    }
+
+    @Benchmark
+    public Object validateSalaryConsistency() {
+        return service.validateSalaryConsistency();
+    }
+
+    @Benchmark
+    public Object sortByLastName() {
+        return service.sortByLastName();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmployeeServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
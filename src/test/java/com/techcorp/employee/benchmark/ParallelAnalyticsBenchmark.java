@@ -0,0 +1,68 @@
+package com.techcorp.employee.benchmark;
+
+import com.techcorp.employee.repository.EmployeeRepository;
+import com.techcorp.employee.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tryb sekwencyjny kontra równoległy (osobna pula fork/join) dla operacji
+ * przeglądających wszystkich pracowników - do wyznaczenia progu
+ * {@code app.analytics.parallel-scan-threshold}.
+ * Rozmiar puli {@code parallelism=0} oznacza liczbę procesorów; przeglądy kolumn
+ * krótsze niż dwa minimalne zakresy zawsze idą sekwencyjnie.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Benchmark)
+public class ParallelAnalyticsBenchmark {
+
+    @Param({"10000", "30000", "100000", "300000", "1000000"})
+    private int size;
+
+    @Param({"sequential", "parallel"})
+    private String mode;
+
+    @Param({"0"})
+    private int parallelism;
+
+    private ForkJoinPool pool;
+    private EmployeeService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        int threshold = mode.equals("parallel") ? 0 : Integer.MAX_VALUE;
+        service = new EmployeeService(new EmployeeRepository(true, pool, threshold));
+        service.addEmployees(BenchmarkData.employees(size, 100));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Object validateSalaryConsistency() {
+        return service.validateSalaryConsistency();
+    }
+
+    @Benchmark
+    public Object averageSalaryByPosition() {
+        return service.getAverageSalaryByPosition();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ParallelAnalyticsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
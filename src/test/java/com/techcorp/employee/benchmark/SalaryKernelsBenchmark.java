@@ -0,0 +1,65 @@
+package com.techcorp.employee.benchmark;
+
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.repository.SalaryKernels;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Przegląd pensji niższych od bazowych: dotychczasowy strumień po obiektach
+ * Employee kontra jądra skalarne i wektorowe po kolumnach {@code double[]}/{@code byte[]}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Benchmark)
+public class SalaryKernelsBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    @Param({"stream", "scalar", "vector"})
+    private String engine;
+
+    private List<Employee> employees;
+    private double[] salaries;
+    private byte[] positions;
+    private SalaryKernels kernels;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        employees = BenchmarkData.employees(size, 100);
+        salaries = new double[size];
+        positions = new byte[size];
+        for (int i = 0; i < size; i++) {
+            Employee employee = employees.get(i);
+            salaries[i] = employee.getSalary();
+            positions[i] = (byte) employee.getPosition().ordinal();
+        }
+        kernels = engine.equals("vector") ? SalaryKernels.best() : SalaryKernels.scalar();
+        if (engine.equals("vector") && !kernels.name().startsWith("vector")) {
+            throw new IllegalStateException("Vector API niedostępne: " + kernels.name());
+        }
+    }
+
+    @Benchmark
+    public long countBelowBase() {
+        if (engine.equals("stream")) {
+            return employees.stream().filter(e -> e.getSalary() < e.getPosition().getSalary()).count();
+        }
+        return kernels.forEachBelowBase(salaries, positions, 0, size, row -> { });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SalaryKernelsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
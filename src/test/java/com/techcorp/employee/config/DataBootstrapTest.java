@@ -0,0 +1,86 @@
+package com.techcorp.employee.config;
+
+import com.techcorp.employee.exception.ApiException;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.ImportErrorCode;
+import com.techcorp.employee.model.ImportSummary;
+import com.techcorp.employee.model.Position;
+import com.techcorp.employee.repository.EmployeeRepository;
+import com.techcorp.employee.service.ApiService;
+import com.techcorp.employee.service.EmployeeService;
+import com.techcorp.employee.service.ImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DataBootstrapTest {
+
+    @Mock
+    private ImportService importService;
+
+    @Mock
+    private ApiService apiService;
+
+    private EmployeeService employeeService;
+    private DataBootstrap bootstrap;
+
+    @BeforeEach
+    void setUp() {
+        employeeService = new EmployeeService(new EmployeeRepository());
+        List<Employee> xmlEmployees = List.of(
+                employee("shared@test.com", "XML"),
+                employee("xml@test.com", "XML"));
+        bootstrap = new DataBootstrap(employeeService, importService, apiService, xmlEmployees);
+    }
+
+    @Test
+    void run_shouldPreferCsvThenXmlThenApi_evenWhenApiFinishesFirst() throws Exception {
+        when(importService.importFromCsv()).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            employeeService.addEmployee(employee("shared@test.com", "CSV"));
+            return summary(1);
+        });
+        when(apiService.fetchEmployeesFromApi(any())).thenAnswer(invocation -> {
+            Consumer<List<Employee>> consumer = invocation.getArgument(0);
+            consumer.accept(List.of(employee("SHARED@test.com", "API"), employee("xml@test.com", "API"),
+                    employee("api@test.com", "API")));
+            return 3;
+        });
+
+        bootstrap.run(null);
+
+        assertEquals(3, employeeService.getAllEmployees().size());
+        assertEquals("CSV", employeeService.findEmployeeByEmail("shared@test.com").orElseThrow().getCompany());
+        assertEquals("XML", employeeService.findEmployeeByEmail("xml@test.com").orElseThrow().getCompany());
+        assertEquals("API", employeeService.findEmployeeByEmail("api@test.com").orElseThrow().getCompany());
+    }
+
+    @Test
+    void run_shouldLoadRemainingSources_whenOneSourceFails() throws Exception {
+        when(importService.importFromCsv()).thenReturn(summary(0));
+        when(apiService.fetchEmployeesFromApi(any())).thenThrow(new ApiException("Błąd HTTP: Status 500"));
+
+        bootstrap.run(null);
+
+        assertEquals(2, employeeService.getAllEmployees().size());
+    }
+
+    private static Employee employee(String email, String company) {
+        return new Employee("Jan", "Kowalski", email, company, Position.PROGRAMMER, 8000);
+    }
+
+    private static ImportSummary summary(int imported) {
+        return new ImportSummary(imported, List.of(), new EnumMap<>(ImportErrorCode.class), imported, 0);
+    }
+}
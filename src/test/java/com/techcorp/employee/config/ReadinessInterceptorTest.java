@@ -0,0 +1,30 @@
+package com.techcorp.employee.config;
+
+import com.techcorp.employee.exception.ServiceNotReadyException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadinessInterceptorTest {
+
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<ApplicationAvailability> provider = mock(ObjectProvider.class);
+    private final ApplicationAvailability availability = mock(ApplicationAvailability.class);
+    private final ReadinessInterceptor interceptor = new ReadinessInterceptor(provider);
+
+    @Test
+    void preHandle_shouldReject_untilAcceptingTraffic() {
+        when(provider.getIfAvailable()).thenReturn(availability);
+        when(availability.getReadinessState()).thenReturn(ReadinessState.REFUSING_TRAFFIC);
+
+        assertThrows(ServiceNotReadyException.class, () -> interceptor.preHandle(null, null, null));
+
+        when(availability.getReadinessState()).thenReturn(ReadinessState.ACCEPTING_TRAFFIC);
+        assertTrue(interceptor.preHandle(null, null, null));
+    }
+}
@@ -15,17 +15,25 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
@@ -33,6 +41,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(EmployeeController.class)
+@Import(EmployeeJsonCache.class)
 class EmployeeControllerTest {
 
     @Autowired
@@ -96,6 +105,21 @@ class EmployeeControllerTest {
                 .andExpect(jsonPath("$.email", is("jan@test.com")));
     }
 
+    @Test
+    void getEmployeeByEmail_shouldHonourIfNoneMatch_withRecordVersion() throws Exception {
+        when(employeeService.findEmployeeByEmail("jan@test.com")).thenReturn(Optional.of(employee1.stored(7, employee1.getCompany(), 1)));
+        when(employeeService.getDataEpoch()).thenReturn("b00t");
+
+        mockMvc.perform(get("/api/employees/jan@test.com"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"b00t-7\""));
+        mockMvc.perform(get("/api/employees/jan@test.com").header("If-None-Match", "\"b00t-7\""))
+                .andExpect(status().isNotModified());
+        // ta sama wersja z innego uruchomienia nie pasuje
+        mockMvc.perform(get("/api/employees/jan@test.com").header("If-None-Match", "\"0ld-7\""))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void getEmployeeByEmail_shouldReturn404_whenNotExists() throws Exception {
         when(employeeService.findEmployeeByEmail("nie@istnieje.com"))
@@ -193,9 +217,9 @@ class EmployeeControllerTest {
 
     @Test
     void updateEmployeeStatus_shouldReturn200_whenSuccess() throws Exception {
-        employee1.setStatus(EmploymentStatus.ON_LEAVE);
+        Employee onLeave = employee1.withStatus(EmploymentStatus.ON_LEAVE);
         when(employeeService.updateEmployeeStatus(eq("jan@test.com"), eq(EmploymentStatus.ON_LEAVE)))
-                .thenReturn(employee1);
+                .thenReturn(onLeave);
 
         Map<String, String> statusUpdate = Map.of("status", "ON_LEAVE");
 
@@ -205,4 +229,135 @@ class EmployeeControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status", is("ON_LEAVE")));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getEmployees_shouldReturnPageWithCursorAndProjection_whenLimitGiven() throws Exception {
+        when(employeeService.getEmployeesPage(null, 2, null)).thenReturn(List.of(employee2, employee1));
+
+        mockMvc.perform(get("/api/employees").param("limit", "1").param("fields", "email,status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].email", is("anna@test.com")))
+                .andExpect(jsonPath("$.items[0].status", is("ACTIVE")))
+                .andExpect(jsonPath("$.items[0].salary").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor", is("YW5uYUB0ZXN0LmNvbQ")));
+    }
+
+    @Test
+    void getEmployees_shouldResumeAfterCursor_andEndWithoutNextCursor() throws Exception {
+        when(employeeService.getEmployeesPage("anna@test.com", 101, null)).thenReturn(List.of(employee1));
+
+        mockMvc.perform(get("/api/employees").param("cursor", "YW5uYUB0ZXN0LmNvbQ"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].firstName", is("Jan")))
+                .andExpect(jsonPath("$.limit", is(100)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void getEmployees_shouldPageByLastNameRange_withLastNameCursor() throws Exception {
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("kowalski\njan@test.com".getBytes(StandardCharsets.UTF_8));
+        when(employeeService.getEmployeesPageByLastName(null, null, 2, "A", "O", null)).thenReturn(List.of(employee1, employee2));
+        when(employeeService.getEmployeesPageByLastName("kowalski", "jan@test.com", 2, "A", "O", null)).thenReturn(List.of(employee2));
+
+        mockMvc.perform(get("/api/employees").param("lastNameFrom", "A").param("lastNameTo", "O").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].lastName", is("Kowalski")))
+                .andExpect(jsonPath("$.nextCursor", is(cursor)));
+        mockMvc.perform(get("/api/employees").param("sort", "lastName").param("lastNameFrom", "A").param("lastNameTo", "O")
+                        .param("limit", "1").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].lastName", is("Nowak")))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void getEmployees_shouldReturn400_forUnknownSortOrRangeWithEmailOrder() throws Exception {
+        mockMvc.perform(get("/api/employees").param("sort", "salary"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/employees").param("sort", "email").param("lastNameFrom", "A"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/employees").param("sort", "lastName").param("cursor", "YW5uYUB0ZXN0LmNvbQ"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getEmployees_shouldReturn400_forUnknownFieldOrInvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/employees").param("fields", "email,password"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/employees").param("cursor", "%%%"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportEmployees_shouldStreamNdjson_withFiltersPassedToService() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Employee> sink = invocation.getArgument(2);
+            sink.accept(employee2);
+            sink.accept(employee1);
+            return null;
+        }).when(employeeService).exportEmployees(eq("TechCorp"), eq(EmploymentStatus.ACTIVE), any());
+
+        MvcResult result = mockMvc.perform(get("/api/employees/export")
+                        .param("company", "TechCorp").param("status", "active"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].startsWith("{"));
+        assertEquals("anna@test.com", objectMapper.readTree(lines[0]).get("email").asText());
+        assertEquals("PROGRAMMER", objectMapper.readTree(lines[1]).get("position").asText());
+        assertEquals(8000.0, objectMapper.readTree(lines[1]).get("salary").asDouble());
+    }
+
+    @Test
+    void exportEmployees_shouldReturn400_forInvalidStatus() throws Exception {
+        mockMvc.perform(get("/api/employees/export").param("status", "RETIRED"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createEmployees_shouldReturnPerItemResults() throws Exception {
+        when(employeeService.addEmployees(any())).thenReturn(new boolean[]{true, false});
+        List<EmployeeDTO> batch = List.of(
+                employeeDTO,
+                new EmployeeDTO("Bez", "Emaila", null, "TechCorp", Position.INTERN, 3000, null),
+                employeeDTO);
+
+        mockMvc.perform(post("/api/employees/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results", hasSize(3)))
+                .andExpect(jsonPath("$.results[0].status", is("CREATED")))
+                .andExpect(jsonPath("$.results[1].status", is("INVALID")))
+                .andExpect(jsonPath("$.results[2].status", is("DUPLICATE")))
+                .andExpect(jsonPath("$.results[2].index", is(2)))
+                .andExpect(jsonPath("$.summary.CREATED", is(1)));
+    }
+
+    @Test
+    void updateEmployeeStatuses_shouldReportNotFoundAndInvalidItems() throws Exception {
+        when(employeeService.updateEmployeeStatuses(List.of("jan@test.com", "ghost@test.com"),
+                List.of(EmploymentStatus.ON_LEAVE, EmploymentStatus.ACTIVE)))
+                .thenReturn(new Employee[]{employee1.withStatus(EmploymentStatus.ON_LEAVE), null});
+        List<Map<String, String>> changes = List.of(
+                Map.of("email", "jan@test.com", "status", "on_leave"),
+                Map.of("email", "anna@test.com", "status", "RETIRED"),
+                Map.of("email", "ghost@test.com", "status", "ACTIVE"));
+
+        mockMvc.perform(patch("/api/employees/batch/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(changes)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].status", is("UPDATED")))
+                .andExpect(jsonPath("$.results[1].status", is("INVALID")))
+                .andExpect(jsonPath("$.results[2].status", is("NOT_FOUND")));
+    }
+}
@@ -0,0 +1,91 @@
+package com.techcorp.employee.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techcorp.employee.dto.EmployeeDTO;
+import com.techcorp.employee.exception.DuplicateEmailException;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.EmploymentStatus;
+import com.techcorp.employee.model.Position;
+import com.techcorp.employee.repository.EmployeeRepository;
+import com.techcorp.employee.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeJsonCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger serializations = new AtomicInteger();
+    private final Function<Employee, EmployeeDTO> toDto = employee -> {
+        serializations.incrementAndGet();
+        return new EmployeeDTO(employee.getFirstName(), employee.getLastName(), employee.getEmail(),
+                employee.getCompany(), employee.getPosition(), employee.getSalary(), employee.getStatus());
+    };
+
+    private EmployeeService employeeService;
+
+    @BeforeEach
+    void setUp() throws DuplicateEmailException {
+        employeeService = new EmployeeService(new EmployeeRepository());
+        employeeService.addEmployee(new Employee("Jan", "Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMMER, 8000));
+        employeeService.addEmployee(new Employee("Anna", "Nowak", "anna@test.com", "DataSoft", Position.MANAGER, 12000));
+    }
+
+    @Test
+    void get_shouldReuseBytes_untilEmployeeChanges() throws Exception {
+        EmployeeJsonCache cache = new EmployeeJsonCache(objectMapper, employeeService, 1_000_000);
+
+        byte[] first = cache.get(find("jan@test.com"), toDto);
+        assertSame(first, cache.get(find("JAN@test.com"), toDto));
+        assertEquals(1, serializations.get());
+
+        employeeService.updateEmployeeStatus("jan@test.com", EmploymentStatus.ON_LEAVE);
+        byte[] updated = cache.get(find("jan@test.com"), toDto);
+
+        assertEquals(2, serializations.get());
+        assertEquals("ON_LEAVE", objectMapper.readTree(updated).get("status").asText());
+        assertEquals(1, cache.getHits());
+        assertEquals(updated.length, cache.getSizeBytes());
+    }
+
+    @Test
+    void get_shouldEvictLeastRecentlyUsed_whenByteBudgetExceeded() {
+        int oneEntry = new EmployeeJsonCache(objectMapper, employeeService, 1_000_000)
+                .get(find("jan@test.com"), toDto).length;
+        EmployeeJsonCache cache = new EmployeeJsonCache(objectMapper, employeeService, oneEntry + 10);
+
+        cache.get(find("jan@test.com"), toDto);
+        cache.get(find("anna@test.com"), toDto);
+
+        assertEquals(1, cache.getEvictions());
+        assertTrue(cache.getSizeBytes() <= oneEntry + 10);
+    }
+
+    @Test
+    void get_shouldGiveRecentlyHitEntry_secondChance_onEviction() throws Exception {
+        employeeService.addEmployee(new Employee("Ola", "Nowak", "ola@test.com", "DataSoft", Position.MANAGER, 12000));
+        EmployeeJsonCache sizing = new EmployeeJsonCache(objectMapper, employeeService, 1_000_000);
+        int budget = sizing.get(find("jan@test.com"), toDto).length + sizing.get(find("anna@test.com"), toDto).length;
+        EmployeeJsonCache cache = new EmployeeJsonCache(objectMapper, employeeService, budget);
+
+        cache.get(find("jan@test.com"), toDto);
+        cache.get(find("anna@test.com"), toDto);
+        cache.get(find("jan@test.com"), toDto);
+        cache.get(find("ola@test.com"), toDto);
+        serializations.set(0);
+
+        cache.get(find("jan@test.com"), toDto);
+        assertEquals(0, serializations.get());
+        cache.get(find("anna@test.com"), toDto);
+        assertEquals(1, serializations.get());
+        assertTrue(cache.getSizeBytes() <= budget);
+    }
+
+    private Employee find(String email) {
+        return employeeService.findEmployeeByEmail(email).orElseThrow();
+    }
+}
@@ -1,7 +1,10 @@
 package com.techcorp.employee.controller;
 
 import com.techcorp.employee.dto.CompanyStatisticsDTO;
+import com.techcorp.employee.dto.SalaryPercentilesDTO;
 import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.Position;
+import com.techcorp.employee.repository.EmployeeRepository;
 import com.techcorp.employee.service.ApiService;
 import com.techcorp.employee.service.EmployeeService;
 import com.techcorp.employee.service.ImportService;
@@ -9,14 +12,27 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -71,6 +87,27 @@ class StatisticsControllerTest {
                 .andExpect(jsonPath("$.MANAGER", is(1)));
     }
 
+    @Test
+    void getAverageSalaryByPosition_shouldReturnMap_withETag() throws Exception {
+        when(employeeService.getDataEpoch()).thenReturn("b00t");
+        when(employeeService.getDataVersion()).thenReturn(7L);
+        when(employeeService.getAverageSalaryByPosition()).thenReturn(Map.of(
+                Position.PROGRAMMER, 8500.0,
+                Position.MANAGER, 12000.0
+        ));
+
+        mockMvc.perform(get("/api/statistics/positions/salary/average"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"b00t-7\""))
+                .andExpect(jsonPath("$.PROGRAMMER", is(8500.0)))
+                .andExpect(jsonPath("$.MANAGER", is(12000.0)));
+
+        mockMvc.perform(get("/api/statistics/positions/salary/average").header("If-None-Match", "\"b00t-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(employeeService, times(1)).getAverageSalaryByPosition();
+    }
+
     @Test
     void getStatusCounts_shouldReturnMap() throws Exception {
         when(employeeService.getEmployeeCountByStatusString()).thenReturn(Map.of(
@@ -87,7 +124,7 @@ class StatisticsControllerTest {
     @Test
     void getCompanyStatistics_shouldReturnCorrectDTO() throws Exception {
         CompanyStatisticsDTO stats = new CompanyStatisticsDTO("TechCorp", 2, 8500.0, 9000.0, "Jan Kowalski");
-        when(employeeService.getCompanyStatistics()).thenReturn(Map.of("TechCorp", stats));
+        when(employeeService.getCompanyStatistics("TechCorp")).thenReturn(Optional.of(stats));
 
         mockMvc.perform(get("/api/statistics/company/TechCorp"))
                 .andExpect(status().isOk())
@@ -100,9 +137,100 @@ class StatisticsControllerTest {
 
     @Test
     void getCompanyStatistics_shouldReturn404_whenCompanyNotFound() throws Exception {
-        when(employeeService.getCompanyStatistics()).thenReturn(Map.of());
+        when(employeeService.getCompanyStatistics("NonExistent")).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/api/statistics/company/NonExistent"))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getTopEarners_shouldReturnRankedCompanyList_andCapLimit() throws Exception {
+        when(employeeService.getTopEarners("TechCorp", 1000)).thenReturn(List.of(
+                new Employee("Anna", "Nowak", "anna@test.com", "TechCorp", Position.MANAGER, 12000),
+                new Employee("Jan", "Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMMER, 8000)));
+
+        mockMvc.perform(get("/api/statistics/salary/top").param("company", "TechCorp").param("limit", "5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].rank", is(1)))
+                .andExpect(jsonPath("$[0].fullName", is("Anna Nowak")))
+                .andExpect(jsonPath("$[1].rank", is(2)))
+                .andExpect(jsonPath("$[1].salary", is(8000.0)));
+    }
+
+    @Test
+    void getTopEarners_shouldReturn404ForUnknownCompany_and400ForBadLimit() throws Exception {
+        when(employeeService.getTopEarners("Ghost", 10)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/statistics/salary/top").param("company", "Ghost"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/statistics/salary/top").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getSalaryPercentiles_shouldParsePositionAndPercentiles() throws Exception {
+        when(employeeService.getSalaryPercentiles(Position.PROGRAMMER, 50.0, 99.9)).thenReturn(List.of(
+                new SalaryPercentilesDTO(Position.PROGRAMMER, 3, Map.of("p50", 8000.0, "p99.9", 9000.0))));
+
+        mockMvc.perform(get("/api/statistics/salary/percentiles").param("position", "programmer").param("p", "50, 99.9"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].position", is("PROGRAMMER")))
+                .andExpect(jsonPath("$[0].employeeCount", is(3)))
+                .andExpect(jsonPath("$[0].percentiles.p50", is(8000.0)));
+
+        mockMvc.perform(get("/api/statistics/salary/percentiles").param("position", "JANITOR"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/statistics/salary/percentiles").param("p", "50,abc"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/statistics/salary/percentiles").param("p", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getStatusCounts_shouldReturn304_whenETagMatchesDataVersion() throws Exception {
+        when(employeeService.getDataEpoch()).thenReturn("b00t");
+        when(employeeService.getDataVersion()).thenReturn(42L);
+
+        mockMvc.perform(get("/api/statistics/status").header("If-None-Match", "\"b00t-42\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(employeeService, never()).getEmployeeCountByStatusString();
+
+        when(employeeService.getDataVersion()).thenReturn(43L);
+        when(employeeService.getEmployeeCountByStatusString()).thenReturn(Map.of("ACTIVE", 1L));
+        mockMvc.perform(get("/api/statistics/status").header("If-None-Match", "\"b00t-42\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"b00t-43\""));
+    }
+
+    @Test
+    void eTag_shouldNotMatchNewRepositoryInstance_withSameVersion() {
+        StatisticsController before = new StatisticsController(new EmployeeService(new EmployeeRepository()), 100);
+        StatisticsController restarted = new StatisticsController(new EmployeeService(new EmployeeRepository()), 100);
+        String etag = before.getStatusCounts(new ServletWebRequest(new MockHttpServletRequest())).getHeaders().getETag();
+
+        // ta sama instancja: 304 (null), nowa instancja z tą samą wersją 0: pełna odpowiedź z innym ETagiem
+        assertNull(before.getStatusCounts(conditionalRequest(etag)));
+        ResponseEntity<Map<String, Long>> response = restarted.getStatusCounts(conditionalRequest(etag));
+        assertNotNull(response);
+        assertNotEquals(etag, response.getHeaders().getETag());
+    }
+
+    private static ServletWebRequest conditionalRequest(String etag) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/statistics/status");
+        request.addHeader("If-None-Match", etag);
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
+    @Test
+    void getStatusCounts_shouldIgnoreETagFromPreviousRun_withSameVersion() throws Exception {
+        // po restarcie wersja znów doszła do 42, ale magazyn ma nowy identyfikator
+        when(employeeService.getDataEpoch()).thenReturn("n3w");
+        when(employeeService.getDataVersion()).thenReturn(42L);
+        when(employeeService.getEmployeeCountByStatusString()).thenReturn(Map.of("ACTIVE", 1L));
+
+        mockMvc.perform(get("/api/statistics/status").header("If-None-Match", "\"b00t-42\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"n3w-42\""));
+    }
+}
@@ -0,0 +1,63 @@
+package com.techcorp.employee.repository;
+
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.EmploymentStatus;
+import com.techcorp.employee.model.Position;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompanyDictionaryTest {
+
+    @Test
+    void acquireAndRelease_shouldCountReferences_andNeverReuseIds() {
+        CompanyDictionary dictionary = new CompanyDictionary();
+
+        CompanyDictionary.Entry techCorp = dictionary.acquire("TechCorp");
+        assertSame(techCorp, dictionary.acquire(" techcorp "));
+        assertEquals("TechCorp", techCorp.name);
+        assertEquals(techCorp.id, dictionary.find("TECHCORP"));
+        assertEquals(Employee.NO_COMPANY, dictionary.find("DataSoft"));
+        assertEquals(Employee.NO_COMPANY, dictionary.find(null));
+        assertEquals(1, dictionary.size());
+
+        dictionary.release(techCorp.id);
+        assertEquals(techCorp.id, dictionary.find("TechCorp"));
+        dictionary.release(techCorp.id);
+        assertEquals(Employee.NO_COMPANY, dictionary.find("TechCorp"));
+        assertEquals(0, dictionary.size());
+
+        assertNotEquals(techCorp.id, dictionary.acquire("TechCorp").id);
+    }
+
+    @Test
+    void repository_shouldStampCompanyIds_andReleaseCompanyWithLastEmployee() {
+        CompanyDictionary dictionary = new CompanyDictionary();
+        EmployeeRepository repository = new EmployeeRepository(dictionary, false, null, Integer.MAX_VALUE);
+        repository.insert(new Employee("Jan", "Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMMER));
+        repository.insert(new Employee("Anna", "Nowak", "anna@test.com", new String("TechCorp"), Position.MANAGER));
+        repository.insert(new Employee("Piotr", "Lis", "piotr@test.com", "techcorp", Position.PROGRAMMER));
+
+        Employee jan = repository.findByEmail("jan@test.com").orElseThrow();
+        Employee anna = repository.findByEmail("anna@test.com").orElseThrow();
+        Employee piotr = repository.findByEmail("piotr@test.com").orElseThrow();
+        assertSame(jan.getCompany(), anna.getCompany());
+        assertEquals("techcorp", piotr.getCompany());
+        assertEquals(jan.getCompanyId(), piotr.getCompanyId());
+        assertEquals(1, dictionary.size());
+
+        // zmiana innych pól jedynej wersji nie zmienia identyfikatora firmy
+        repository.update("jan@test.com", e -> e.withStatus(EmploymentStatus.ON_LEAVE));
+        assertEquals(jan.getCompanyId(), repository.findByEmail("jan@test.com").orElseThrow().getCompanyId());
+
+        repository.remove("jan@test.com");
+        repository.remove("anna@test.com");
+        assertEquals(1, dictionary.size());
+        repository.remove("piotr@test.com");
+        assertEquals(0, dictionary.size());
+        assertTrue(repository.findByCompany("TechCorp").isEmpty());
+
+        // osobny magazyn ma osobny słownik
+        assertEquals(0, new EmployeeRepository().indexSizes().get("company_dictionary"));
+    }
+}
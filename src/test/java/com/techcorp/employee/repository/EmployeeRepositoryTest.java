@@ -0,0 +1,417 @@
+package com.techcorp.employee.repository;
+
+import com.techcorp.employee.dto.CompanyStatisticsDTO;
+import com.techcorp.employee.dto.SalaryPercentilesDTO;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.EmploymentStatus;
+import com.techcorp.employee.model.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeRepositoryTest {
+
+    private static final int WRITERS = 4;
+    private static final int READERS = 8;
+    private static final int EMAILS = 500;
+    private static final int OPERATIONS_PER_WRITER = 20_000;
+    private static final String[] COMPANIES = {"TechCorp", "DataSoft", "SoftLtd"};
+
+    private EmployeeRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new EmployeeRepository();
+    }
+
+    @Test
+    void insert_shouldRejectDuplicateEmail_ignoringCase() {
+        assertTrue(repository.insert(employee(1, "TechCorp", Position.PROGRAMMER)));
+        assertFalse(repository.insert(new Employee("X", "Y", "USER1@TEST.COM", "TechCorp", Position.INTERN, 3000)));
+        assertEquals(1, repository.size());
+    }
+
+    @Test
+    void remove_shouldDropCompanyStatistics_whenLastEmployeeLeaves() {
+        repository.insert(employee(1, "TechCorp", Position.PROGRAMMER));
+        assertTrue(repository.companyStatistics("techcorp").isPresent());
+
+        repository.remove("user1@test.com");
+
+        assertTrue(repository.companyStatistics("TechCorp").isEmpty());
+        assertEquals(0.0, repository.averageSalary());
+    }
+
+    @Test
+    void version_shouldGrowOnEveryChange_andStampStoredRecords() {
+        repository.insert(employee(1, "TechCorp", Position.PROGRAMMER));
+        long afterInsert = repository.version();
+        assertEquals(afterInsert, repository.findByEmail("user1@test.com").orElseThrow().getVersion());
+
+        assertFalse(repository.insert(employee(1, "TechCorp", Position.PROGRAMMER)));
+        assertNull(repository.remove("ghost@test.com"));
+        assertEquals(afterInsert, repository.version());
+
+        Employee updated = repository.update("user1@test.com", e -> e.withStatus(EmploymentStatus.ON_LEAVE));
+        assertTrue(repository.version() > afterInsert);
+        assertEquals(repository.version(), updated.getVersion());
+    }
+
+    @Test
+    void update_shouldRejectEmailChange() {
+        repository.insert(employee(1, "TechCorp", Position.PROGRAMMER));
+
+        assertThrows(IllegalArgumentException.class, () -> repository.update("user1@test.com",
+                e -> new Employee("Jan", "Kowalski", "other@test.com", "TechCorp", Position.PROGRAMMER, 8000)));
+        assertEquals(1, repository.findByCompany("TechCorp").size());
+    }
+
+    @Test
+    void failingListener_shouldNotLeaveLockTaken_andOtherListenersShouldRunOutsideLock() throws Exception {
+        List<Integer> sizesSeenByListener = new ArrayList<>();
+        repository.addChangeListener((before, after) -> {
+            throw new IllegalStateException("listener failure");
+        });
+        repository.addChangeListener(new EmployeeChangeListener() {
+            @Override
+            public void onChange(Employee before, Employee after) {
+            }
+
+            @Override
+            public void afterWrite() {
+                // blokada odczytu pod nadal trzymaną blokadą zapisu zakleszczyłaby wątek
+                sizesSeenByListener.add(repository.findAll().size());
+            }
+        });
+
+        assertTrue(repository.insert(employee(1, "TechCorp", Position.PROGRAMMER)));
+        long afterInsert = repository.version();
+        assertThrows(IllegalArgumentException.class, () -> repository.update("user1@test.com",
+                e -> new Employee("Jan", "Kowalski", "other@test.com", "TechCorp", Position.PROGRAMMER, 8000)));
+        assertEquals(afterInsert, repository.version());
+
+        Future<Boolean> otherWriter = Executors.newSingleThreadExecutor().submit(
+                () -> repository.insert(employee(2, "TechCorp", Position.MANAGER)));
+        assertTrue(otherWriter.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1, 2), sizesSeenByListener);
+    }
+
+    @Test
+    void writer_shouldNotReturn_beforeItsSectionIsDelivered_byAnotherThread() throws Exception {
+        CountDownLatch releaseSecond = new CountDownLatch(1);
+        List<String> delivered = new CopyOnWriteArrayList<>();
+        repository.addChangeListener((before, after) -> {
+            try {
+                if (after.getEmail().equals("user1@test.com")) {
+                    // pierwszy dostarczający czeka, aż drugi zapis trafi do kolejki, i dostarcza go sam
+                    while (repository.version() < 2) {
+                        Thread.onSpinWait();
+                    }
+                } else {
+                    releaseSecond.await(5, TimeUnit.SECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            delivered.add(after.getEmail());
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> first = executor.submit(
+                    () -> repository.insert(employee(1, "TechCorp", Position.PROGRAMMER)));
+            while (repository.version() < 1) {
+                Thread.onSpinWait();
+            }
+            Future<List<String>> second = executor.submit(() -> {
+                repository.insert(employee(2, "TechCorp", Position.MANAGER));
+                return List.copyOf(delivered);
+            });
+
+            assertThrows(TimeoutException.class, () -> second.get(300, TimeUnit.MILLISECONDS));
+            releaseSecond.countDown();
+            assertTrue(first.get(5, TimeUnit.SECONDS));
+            assertEquals(List.of("user1@test.com", "user2@test.com"), second.get(5, TimeUnit.SECONDS));
+        } finally {
+            releaseSecond.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void findPage_shouldWalkEmailOrder_fromCursor_withCompanyFilter() {
+        for (int id : new int[]{5, 1, 4, 2, 3}) {
+            repository.insert(employee(id, id % 2 == 0 ? "DataSoft" : "TechCorp", Position.PROGRAMMER));
+        }
+        repository.update("USER2@test.com", e -> e.withStatus(EmploymentStatus.ON_LEAVE));
+        repository.remove("user3@test.com");
+
+        List<Employee> first = repository.findPage(null, 2, null);
+        assertEquals(List.of("user1@test.com", "user2@test.com"), first.stream().map(Employee::getEmail).toList());
+        assertEquals(EmploymentStatus.ON_LEAVE, first.get(1).getStatus());
+
+        List<Employee> rest = repository.findPage("USER2@test.com", 10, null);
+        assertEquals(List.of("user4@test.com", "user5@test.com"), rest.stream().map(Employee::getEmail).toList());
+
+        List<Employee> techCorp = repository.findPage(null, 10, " techcorp ");
+        assertEquals(List.of("user1@test.com", "user5@test.com"), techCorp.stream().map(Employee::getEmail).toList());
+    }
+
+    @Test
+    void companyPages_shouldFollowCompanyChanges_andDropEmptyCompanyIndexes() {
+        for (int id = 1; id <= 4; id++) {
+            repository.insert(employee(id, "TechCorp", Position.PROGRAMMER));
+        }
+        repository.insert(employee(5, "DataSoft", Position.PROGRAMMER));
+        repository.update("user2@test.com", e -> new Employee(e.getFirstName(), e.getLastName(), e.getEmail(),
+                "DataSoft", e.getPosition(), e.getSalary(), e.getStatus()));
+
+        assertEquals(List.of("user3@test.com", "user4@test.com"), emails(repository.findPage("user1@test.com", 10, "TechCorp")));
+        assertEquals(List.of("user2@test.com", "user5@test.com"), emails(repository.findPage(null, 10, "DataSoft")));
+        assertEquals(List.of("Kowalski2"),
+                lastNames(repository.findPageByLastName(null, null, 1, null, null, "datasoft")));
+        assertEquals(2, repository.indexSizes().get("company_order"));
+
+        repository.remove("user2@test.com");
+        repository.remove("user5@test.com");
+        assertTrue(repository.findPage(null, 10, "DataSoft").isEmpty());
+        assertTrue(repository.findPageByLastName(null, null, 10, null, null, "DataSoft").isEmpty());
+        assertEquals(1, repository.indexSizes().get("company_order"));
+    }
+
+    @Test
+    void forEachInEmailOrder_shouldApplyCompanyAndStatusFilters() {
+        for (int id = 1; id <= 6; id++) {
+            repository.insert(employee(id, id % 2 == 0 ? "DataSoft" : "TechCorp", Position.PROGRAMMER));
+        }
+        repository.update("user5@test.com", e -> e.withStatus(EmploymentStatus.TERMINATED));
+
+        List<String> visited = new ArrayList<>();
+        repository.forEachInEmailOrder("TECHCORP", EmploymentStatus.ACTIVE, e -> visited.add(e.getEmail()));
+
+        assertEquals(List.of("user1@test.com", "user3@test.com"), visited);
+
+        // przeniesienie do innej firmy przenosi pracownika między indeksami firm
+        repository.update("user1@test.com", e -> new Employee(e.getFirstName(), e.getLastName(), e.getEmail(),
+                "DataSoft", e.getPosition(), e.getSalary(), e.getStatus()));
+        List<String> dataSoft = new ArrayList<>();
+        repository.forEachInEmailOrder("DataSoft", null, e -> dataSoft.add(e.getEmail()));
+        assertEquals(List.of("user1@test.com", "user2@test.com", "user4@test.com", "user6@test.com"), dataSoft);
+        repository.forEachInEmailOrder("Ghost", null, e -> fail("nieznana firma"));
+    }
+
+    @Test
+    void salaryColumns_shouldFollowInsertsUpdatesAndRemovals() {
+        for (int id = 1; id <= 5; id++) {
+            repository.insert(employee(id, "TechCorp", Position.PROGRAMMER));
+        }
+        repository.insert(new Employee("Low", "Paid", "low@test.com", "TechCorp", Position.MANAGER, 1000));
+        repository.update("user2@test.com", e -> new Employee(e.getFirstName(), e.getLastName(), e.getEmail(),
+                e.getCompany(), e.getPosition(), 500, e.getStatus()));
+        repository.update("user5@test.com", e -> new Employee(e.getFirstName(), e.getLastName(), e.getEmail(),
+                e.getCompany(), Position.CEO, 30000, e.getStatus()));
+
+        assertEquals("user5@test.com", repository.findHighestPaid().orElseThrow().getEmail());
+        assertEquals(List.of("low@test.com", "user2@test.com"), repository.findBelowBaseSalary().stream()
+                .map(Employee::getEmail).sorted().toList());
+
+        repository.remove("user5@test.com");
+        repository.remove("low@test.com");
+
+        assertEquals("user4@test.com", repository.findHighestPaid().orElseThrow().getEmail());
+        assertEquals(List.of("user2@test.com"), repository.findBelowBaseSalary().stream().map(Employee::getEmail).toList());
+        assertEquals(4, repository.indexSizes().get("salary_columns"));
+    }
+
+    @Test
+    void lastNameIndex_shouldServeRangesAndPages_andFollowUpdates() {
+        String[] lastNames = {"Zieliński", "adamczyk", "Baran", "Cichy", "Czarnecki", "Dudek", "baran"};
+        for (int id = 0; id < lastNames.length; id++) {
+            repository.insert(new Employee("Jan", lastNames[id], "user" + id + "@test.com", COMPANIES[id % 2], Position.PROGRAMMER));
+        }
+
+        assertEquals(List.of("adamczyk", "Baran", "baran", "Cichy", "Czarnecki", "Dudek", "Zieliński"),
+                repository.findAllInLastNameOrder().stream().map(Employee::getLastName).toList());
+        // zakres A–C obejmuje wszystkie nazwiska na C, ale nie Dudek
+        assertEquals(List.of("adamczyk", "Baran", "baran", "Cichy", "Czarnecki"),
+                lastNames(repository.findPageByLastName(null, null, 100, "A", "C", null)));
+        assertEquals(List.of("baran", "Cichy"),
+                lastNames(repository.findPageByLastName("Baran", "user2@test.com", 2, "b", "c", null)));
+        assertEquals(List.of("Baran", "baran", "Czarnecki"),
+                lastNames(repository.findPageByLastName(null, null, 100, "B", "Cz", "TechCorp")));
+
+        repository.update("user5@test.com", e -> new Employee(e.getFirstName(), "Andrzejewski", e.getEmail(),
+                e.getCompany(), e.getPosition(), e.getSalary(), e.getStatus()));
+        repository.remove("user1@test.com");
+
+        assertEquals(List.of("Andrzejewski", "Baran", "baran"),
+                lastNames(repository.findPageByLastName(null, null, 3, null, null, null)));
+        assertEquals(6, repository.indexSizes().get("last_name_order"));
+    }
+
+    @Test
+    void salaryRankings_shouldServeTopEarnersAndPercentiles_andFollowUpdates() {
+        for (int id = 1; id <= 10; id++) {
+            repository.insert(new Employee("Jan" + id, "Kowalski", "user" + id + "@test.com", COMPANIES[id % 2],
+                    Position.PROGRAMMER, id * 1000));
+        }
+        repository.insert(new Employee("Anna", "Nowak", "boss@test.com", "DataSoft", Position.MANAGER, 50_000));
+
+        assertEquals(List.of("boss@test.com", "user10@test.com", "user9@test.com"), emails(repository.findTopEarners(3)));
+        assertEquals(List.of("user10@test.com", "user8@test.com"), emails(repository.findTopEarnersByCompany("techcorp", 2)));
+        assertTrue(repository.findTopEarnersByCompany("Ghost", 2).isEmpty());
+
+        SalaryPercentilesDTO programmers = repository.salaryPercentiles(Position.PROGRAMMER, new double[]{50, 90, 99.5}).orElseThrow();
+        assertEquals(10, programmers.getEmployeeCount());
+        assertEquals(Map.of("p50", 5000.0, "p90", 9000.0, "p99.5", 10000.0), programmers.getPercentiles());
+        assertTrue(repository.salaryPercentiles(Position.CEO, new double[]{50}).isEmpty());
+
+        repository.update("boss@test.com", e -> new Employee(e.getFirstName(), e.getLastName(), e.getEmail(),
+                e.getCompany(), Position.PROGRAMMER, 500, e.getStatus()));
+        repository.remove("user10@test.com");
+
+        assertEquals("user9@test.com", repository.findHighestPaid().orElseThrow().getEmail());
+        assertEquals(Map.of("p50", 4000.0), repository.salaryPercentiles(Position.PROGRAMMER, new double[]{50})
+                .orElseThrow().getPercentiles());
+        assertTrue(repository.salaryPercentiles(Position.MANAGER, new double[]{50}).isEmpty());
+        assertEquals(10, repository.indexSizes().get("salary_ranking"));
+
+        // ta sama pensja: wpisy rankingów dostają nową wersję na miejscu
+        repository.update("user9@test.com", e -> e.withStatus(EmploymentStatus.ON_LEAVE));
+        assertEquals(EmploymentStatus.ON_LEAVE, repository.findHighestPaid().orElseThrow().getStatus());
+        repository.update("user8@test.com", e -> new Employee(e.getFirstName(), e.getLastName(), e.getEmail(),
+                e.getCompany(), Position.MANAGER, e.getSalary(), e.getStatus()));
+        assertEquals(Map.of("p50", 8000.0), repository.salaryPercentiles(Position.MANAGER, new double[]{50})
+                .orElseThrow().getPercentiles());
+        assertEquals(9, repository.salaryPercentiles(Position.PROGRAMMER, new double[]{50}).orElseThrow().getEmployeeCount());
+        assertEquals(10, repository.indexSizes().get("salary_ranking"));
+    }
+
+    @Test
+    void parallelColumnScans_shouldMatchSequentialScans() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            EmployeeRepository parallel = new EmployeeRepository(true, pool, 1);
+            List<Employee> batch = new ArrayList<>();
+            Position[] positions = Position.values();
+            for (int id = 0; id < 100_000; id++) {
+                Position position = positions[id % positions.length];
+                // co siódmy poniżej pensji bazowej
+                double salary = id % 7 == 0 ? position.getSalary() - 1 : position.getSalary() + id % 1000;
+                batch.add(new Employee("Jan" + id, "Kowalski" + id, "user" + id + "@test.com",
+                        COMPANIES[id % COMPANIES.length], position, salary));
+            }
+            repository.insertAll(batch);
+            parallel.insertAll(batch);
+
+            assertEquals(repository.findBelowBaseSalary().stream().map(Employee::getEmail).toList(),
+                    parallel.findBelowBaseSalary().stream().map(Employee::getEmail).toList());
+
+            int positionCount = Position.values().length;
+            double[] sequentialSums = new double[positionCount];
+            long[] sequentialCounts = new long[positionCount];
+            double[] parallelSums = new double[positionCount];
+            long[] parallelCounts = new long[positionCount];
+            repository.salaryTotalsByPosition(sequentialSums, sequentialCounts);
+            parallel.salaryTotalsByPosition(parallelSums, parallelCounts);
+            // co do bitu, nie z tolerancją
+            assertArrayEquals(sequentialSums, parallelSums, 0.0);
+            assertArrayEquals(sequentialCounts, parallelCounts);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void concurrentReadersAndWriters_shouldKeepIndexesConsistent() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + READERS);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Future<?>> writers = new ArrayList<>();
+        List<Future<?>> readers = new ArrayList<>();
+
+        for (int w = 0; w < WRITERS; w++) {
+            writers.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERATIONS_PER_WRITER; i++) {
+                    int id = random.nextInt(EMAILS);
+                    String email = "user" + id + "@test.com";
+                    switch (random.nextInt(4)) {
+                        case 0 -> repository.insert(employee(id, COMPANIES[random.nextInt(COMPANIES.length)],
+                                Position.values()[random.nextInt(Position.values().length)]));
+                        case 1 -> repository.remove(email);
+                        case 2 -> repository.update(email, e -> e.withStatus(
+                                EmploymentStatus.values()[random.nextInt(EmploymentStatus.values().length)]));
+                        default -> repository.update(email, e -> new Employee(e.getFirstName(), e.getLastName(), e.getEmail(),
+                                COMPANIES[random.nextInt(COMPANIES.length)], e.getPosition(), e.getSalary(), e.getStatus()));
+                    }
+                }
+            }));
+        }
+        for (int r = 0; r < READERS; r++) {
+            readers.add(pool.submit(() -> {
+                while (writing.get()) {
+                    repository.findByEmail("user" + ThreadLocalRandom.current().nextInt(EMAILS) + "@test.com");
+                    repository.findByCompany(COMPANIES[0]);
+                    repository.findByStatus(EmploymentStatus.ACTIVE);
+                    repository.averageSalary();
+                    repository.findHighestPaid();
+                    repository.companyStatistics(COMPANIES[1])
+                            .ifPresent(stats -> assertTrue(stats.getEmployeeCount() > 0));
+
+                    long byStatus = repository.countByStatus().values().stream().mapToLong(Long::longValue).sum();
+                    assertTrue(byStatus >= 0 && byStatus <= EMAILS);
+                }
+            }));
+        }
+
+        for (Future<?> writer : writers) {
+            writer.get(60, TimeUnit.SECONDS);
+        }
+        writing.set(false);
+        for (Future<?> reader : readers) {
+            reader.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        List<Employee> all = repository.findAll();
+        assertEquals(all.size(), repository.size());
+        assertEquals(all.size(), repository.countByStatus().values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(all.size(), repository.findPage(null, Integer.MAX_VALUE, null).size());
+        assertEquals(all.stream().mapToDouble(Employee::getSalary).max().orElseThrow(),
+                repository.findHighestPaid().orElseThrow().getSalary());
+
+        for (String company : COMPANIES) {
+            List<Employee> members = repository.findByCompany(company);
+            assertEquals(members.stream().map(Employee::getEmail).sorted().toList(),
+                    emails(repository.findPage(null, Integer.MAX_VALUE, company)));
+            assertEquals(members.size(), repository.findPageByLastName(null, null, Integer.MAX_VALUE, null, null, company).size());
+            if (members.isEmpty()) {
+                assertTrue(repository.companyStatistics(company).isEmpty());
+                continue;
+            }
+            CompanyStatisticsDTO stats = repository.companyStatistics(company).orElseThrow();
+            assertEquals(members.size(), stats.getEmployeeCount());
+            double max = members.stream().mapToDouble(Employee::getSalary).max().orElseThrow();
+            assertEquals(max, stats.getHighestSalary());
+        }
+    }
+
+    private static List<String> emails(List<Employee> employees) {
+        return employees.stream().map(Employee::getEmail).toList();
+    }
+
+    private static List<String> lastNames(List<Employee> employees) {
+        return employees.stream().map(Employee::getLastName).toList();
+    }
+
+    private static Employee employee(int id, String company, Position position) {
+        return new Employee("Jan" + id, "Kowalski" + id, "user" + id + "@test.com", company, position,
+                position.getSalary() + id);
+    }
+}
@@ -0,0 +1,44 @@
+package com.techcorp.employee.repository;
+
+import com.techcorp.employee.model.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalaryKernelsTest {
+
+    private static final SalaryKernels SCALAR = SalaryKernels.scalar();
+    private static final SalaryKernels BEST = SalaryKernels.best();
+
+    @Test
+    void best_shouldUseVectorApi_whenModuleIsPresent() {
+        // Surefire uruchamia testy z --add-modules=jdk.incubator.vector (pom.xml).
+        assertTrue(BEST.name().startsWith("vector"), BEST.name());
+    }
+
+    @Test
+    void vectorKernels_shouldMatchScalar_forAllLengthsAndTails() {
+        Random random = new Random(42);
+        for (int length : new int[]{0, 1, 7, 8, 9, 63, 64, 65, 1000, 4099}) {
+            double[] salaries = new double[length + 5];
+            byte[] positions = new byte[length + 5];
+            for (int i = 0; i < salaries.length; i++) {
+                salaries[i] = 2000 + random.nextInt(30000) + random.nextInt(100) / 100.0;
+                positions[i] = (byte) (random.nextInt(10) == 0 ? -1 : random.nextInt(Position.values().length));
+            }
+            // zakres od początku kolumny i przesunięty - jak zakresy przeglądów równoległych
+            for (int from : new int[]{0, Math.min(3, length)}) {
+                String range = "[" + from + ", " + length + ")";
+                List<Integer> expectedRows = new ArrayList<>();
+                List<Integer> actualRows = new ArrayList<>();
+                assertEquals(SCALAR.forEachBelowBase(salaries, positions, from, length, expectedRows::add),
+                        BEST.forEachBelowBase(salaries, positions, from, length, actualRows::add), range);
+                assertEquals(expectedRows, actualRows, range);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.techcorp.employee.repository;
+
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.EmploymentStatus;
+import com.techcorp.employee.model.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalaryRankIndexTest {
+
+    @Test
+    void ranking_shouldMatchSortedList_afterRandomInsertsAndRemovals() {
+        Random random = new Random(7);
+        SalaryRankIndex index = new SalaryRankIndex();
+        List<Employee> expected = new ArrayList<>();
+
+        for (int step = 0; step < 5000; step++) {
+            if (!expected.isEmpty() && random.nextInt(3) == 0) {
+                Employee removed = expected.remove(random.nextInt(expected.size()));
+                assertTrue(index.remove(removed));
+            } else {
+                // niewiele różnych pensji - dużo remisów rozstrzyganych emailem
+                Employee employee = new Employee("Jan", "Kowalski", "user" + step + "@test.com", "TechCorp",
+                        Position.PROGRAMMER, 5000 + random.nextInt(50) * 100);
+                index.add(employee);
+                expected.add(employee);
+            }
+        }
+        expected.sort(CompanyAggregate.BY_SALARY_DESC);
+
+        assertEquals(expected.size(), index.size());
+        assertEquals(expected.subList(0, 25), index.top(25));
+        assertEquals(expected, index.top(Integer.MAX_VALUE));
+        for (int i = 0; i < expected.size(); i += 97) {
+            assertSame(expected.get(i), index.get(i));
+        }
+        assertNull(index.get(expected.size()));
+
+        Employee replaced = expected.get(3);
+        Employee replacement = replaced.withStatus(EmploymentStatus.ON_LEAVE);
+        assertTrue(index.replace(replaced, replacement));
+        assertSame(replacement, index.get(3));
+        assertEquals(expected.size(), index.size());
+        assertFalse(index.remove(new Employee("X", "Y", "ghost@test.com", "TechCorp", Position.INTERN, 1)));
+    }
+
+    @Test
+    void percentile_shouldUseNearestRank() {
+        SalaryRankIndex index = new SalaryRankIndex();
+        assertTrue(Double.isNaN(index.percentile(50)));
+        for (int i = 1; i <= 10; i++) {
+            index.add(new Employee("Jan", "Kowalski", "user" + i + "@test.com", "TechCorp", Position.PROGRAMMER, i * 1000));
+        }
+
+        assertEquals(5000, index.percentile(50));
+        assertEquals(9000, index.percentile(90));
+        assertEquals(10000, index.percentile(99));
+        assertEquals(10000, index.percentile(100));
+        assertEquals(1000, index.percentile(1));
+    }
+}
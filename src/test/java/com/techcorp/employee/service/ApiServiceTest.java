@@ -1,61 +1,260 @@
 package com.techcorp.employee.service;
 
 import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
 import com.techcorp.employee.exception.ApiException;
 import com.techcorp.employee.model.Employee;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
 import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
 
-@ExtendWith(MockitoExtension.class)
 class ApiServiceTest {
 
-    @Mock
-    private HttpClient mockHttpClient;
+    private static final int USERS = 23;
+    private static final int LARGE_USERS = 1_200;
 
-    @Mock
-    private HttpResponse<String> mockHttpResponse;
-
-    private ApiService apiService;
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile boolean sendTotalCount = true;
 
     @BeforeEach
-    void setUp() {
-        apiService = new ApiService(mockHttpClient, new Gson(), "http://test-api.url");
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.createContext("/users", this::handleUsers);
+        server.createContext("/large", exchange -> {
+            StringBuilder json = new StringBuilder("[");
+            for (int i = 0; i < LARGE_USERS; i++) {
+                json.append(i > 0 ? "," : "").append(user(i));
+            }
+            respond(exchange, 200, json.append(']').toString());
+        });
+        server.createContext("/incomplete", exchange ->
+                respond(exchange, 200, "[{\"name\": \"Leanne Graham\", \"company\": {\"name\": \"X\"}}]"));
+        // API ignorujące parametry stronicowania: zawsze te same 5 rekordów, bez X-Total-Count
+        server.createContext("/same-page", exchange -> {
+            requests.incrementAndGet();
+            respond(exchange, 200, "[" + user(0) + "," + user(1) + "," + user(2) + "," + user(3) + "," + user(4) + "]");
+        });
+        server.createContext("/error", exchange -> respond(exchange, 500, "{}"));
+        server.createContext("/broken", exchange -> respond(exchange, 200, "[{\"name\": "));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void fetchEmployeesFromApi_shouldSucceed_on200OK() throws ApiException {
+        ApiService apiService = new ApiService(HttpClient.newHttpClient(), new Gson(), baseUrl + "/users");
+
+        List<Employee> employees = apiService.fetchEmployeesFromApi();
+
+        assertEquals(USERS, employees.size());
+        assertEquals("Leanne0", employees.get(0).getFirstName());
+        assertEquals("Graham", employees.get(0).getLastName());
+        assertEquals(1, requests.get());
     }
 
     @Test
-    void fetchEmployeesFromApi_shouldSucceed_on200OK() throws IOException, InterruptedException, ApiException {
-        String jsonResponse = "[{\"name\": \"Leanne Graham\", \"email\": \"Sincere@april.biz\", \"company\": { \"name\": \"Romaguera-Crona\" }}]";
+    void fetchEmployeesFromApi_shouldThrowApiException_onNon200() {
+        ApiService apiService = new ApiService(HttpClient.newHttpClient(), new Gson(), baseUrl + "/error");
 
-        when(mockHttpResponse.statusCode()).thenReturn(200);
-        when(mockHttpResponse.body()).thenReturn(jsonResponse);
-        when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-                .thenReturn(mockHttpResponse);
+        assertThrows(ApiException.class, apiService::fetchEmployeesFromApi);
+    }
+
+    @Test
+    void fetchEmployeesFromApi_shouldThrowApiException_onMalformedJson() {
+        ApiService apiService = new ApiService(HttpClient.newHttpClient(), new Gson(), baseUrl + "/broken");
+
+        assertThrows(ApiException.class, apiService::fetchEmployeesFromApi);
+    }
+
+    @Test
+    void fetchEmployeesFromApi_shouldFetchAllPagesInOrder_withinParallelismLimit() throws ApiException {
+        ApiService apiService = pagedService(5, 2);
+        List<Integer> pageSizes = new ArrayList<>();
+        List<Employee> employees = new ArrayList<>();
+
+        int total = apiService.fetchEmployeesFromApi(page -> {
+            pageSizes.add(page.size());
+            employees.addAll(page);
+        });
+
+        assertEquals(USERS, total);
+        assertEquals(List.of(5, 5, 5, 5, 3), pageSizes);
+        for (int i = 0; i < USERS; i++) {
+            assertEquals("user" + i + "@test.com", employees.get(i).getEmail());
+        }
+        assertEquals(5, requests.get());
+        assertTrue(maxInFlight.get() <= 2);
+    }
+
+    @Test
+    void fetchEmployeesFromApi_shouldStopAtShortPage_withoutTotalCountHeader() throws ApiException {
+        sendTotalCount = false;
+        ApiService apiService = pagedService(10, 3);
 
         List<Employee> employees = apiService.fetchEmployeesFromApi();
 
-        assertFalse(employees.isEmpty());
-        assertEquals("Leanne", employees.get(0).getFirstName());
+        assertEquals(USERS, employees.size());
+        assertEquals("user22@test.com", employees.get(USERS - 1).getEmail());
+        assertTrue(requests.get() <= 5);
     }
 
     @Test
-    void fetchEmployeesFromApi_shouldThrowApiException_onNon200() throws IOException, InterruptedException {
-        when(mockHttpResponse.statusCode()).thenReturn(500);
-        when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-                .thenReturn(mockHttpResponse);
+    void fetchEmployeesFromApi_shouldStop_whenApiIgnoresPaging() throws ApiException {
+        ApiService fullPages = new ApiService(HttpClient.newHttpClient(), new Gson(), baseUrl + "/large",
+                100, 3, "_page", "_limit");
+        assertEquals(LARGE_USERS, fullPages.fetchEmployeesFromApi().size());
+
+        ApiService samePages = new ApiService(HttpClient.newHttpClient(), new Gson(), baseUrl + "/same-page",
+                5, 3, "_page", "_limit");
+        List<Employee> employees = samePages.fetchEmployeesFromApi();
+
+        assertEquals(5, employees.size());
+        assertEquals("user4@test.com", employees.get(4).getEmail());
+        assertTrue(requests.get() <= 4);
+    }
+
+    @Test
+    void fetchEmployeesFromApi_shouldFail_whenMaxPagesExceeded() {
+        sendTotalCount = false;
+        ApiService apiService = new ApiService(HttpClient.newHttpClient(), new Gson(), baseUrl + "/users",
+                5, 2, "_page", "_limit", 3, new SimpleMeterRegistry());
+
+        ApiException exception = assertThrows(ApiException.class, apiService::fetchEmployeesFromApi);
+
+        assertTrue(exception.getMessage().contains("3"));
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    void fetchEmployeesFromApi_shouldStreamLargeResponseInChunks() throws ApiException {
+        ApiService apiService = new ApiService(HttpClient.newHttpClient(), new Gson(), baseUrl + "/large");
+        List<Integer> chunkSizes = new ArrayList<>();
+        List<Employee> employees = new ArrayList<>();
+
+        int total = apiService.fetchEmployeesFromApi(chunk -> {
+            chunkSizes.add(chunk.size());
+            employees.addAll(chunk);
+        });
+
+        assertEquals(LARGE_USERS, total);
+        assertEquals(List.of(500, 500, 200), chunkSizes);
+        assertEquals("Romaguera-Crona", employees.get(LARGE_USERS - 1).getCompany());
+        assertEquals("user1199@test.com", employees.get(LARGE_USERS - 1).getEmail());
+    }
+
+    @Test
+    void fetchEmployeesFromApi_shouldThrowApiException_whenRequiredFieldMissing() {
+        ApiService apiService = new ApiService(HttpClient.newHttpClient(), new Gson(), baseUrl + "/incomplete");
 
         assertThrows(ApiException.class, apiService::fetchEmployeesFromApi);
     }
-}
\ No newline at end of file
+
+    @Test
+    void fetchEmployeesFromApi_shouldRecordLatencyAndPayloadMetrics() throws ApiException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ApiService apiService = new ApiService(HttpClient.newHttpClient(), new Gson(), baseUrl + "/users",
+                10, 2, "_page", "_limit", 10_000, registry);
+
+        apiService.fetchEmployeesFromApi();
+        assertThrows(ApiException.class, () -> new ApiService(HttpClient.newHttpClient(), new Gson(), baseUrl + "/error",
+                0, 1, "_page", "_limit", 10_000, registry).fetchEmployeesFromApi());
+
+        assertEquals(1, registry.get("employee.api.fetch").tag("outcome", "success").timer().count());
+        assertEquals(1, registry.get("employee.api.fetch").tag("outcome", "error").timer().count());
+        assertEquals(3, registry.get("employee.api.parse").timer().count());
+        DistributionSummary payload = registry.get("employee.api.payload").summary();
+        assertEquals(3, payload.count());
+        assertTrue(payload.totalAmount() > USERS * 100);
+    }
+
+    private ApiService pagedService(int pageSize, int parallelism) {
+        return new ApiService(HttpClient.newHttpClient(), new Gson(), baseUrl + "/users",
+                pageSize, parallelism, "_page", "_limit");
+    }
+
+    private void handleUsers(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            Map<String, String> params = queryParams(exchange.getRequestURI().getQuery());
+            int from = 0;
+            int to = USERS;
+            if (params.containsKey("_page")) {
+                int limit = Integer.parseInt(params.get("_limit"));
+                from = Math.min(USERS, (Integer.parseInt(params.get("_page")) - 1) * limit);
+                to = Math.min(USERS, from + limit);
+                Thread.sleep(20);
+            }
+            StringBuilder json = new StringBuilder("[");
+            for (int i = from; i < to; i++) {
+                if (i > from) {
+                    json.append(',');
+                }
+                json.append(user(i));
+            }
+            json.append(']');
+            if (sendTotalCount) {
+                exchange.getResponseHeaders().add("X-Total-Count", String.valueOf(USERS));
+            }
+            respond(exchange, 200, json.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    // Pola poza name/email/company.name (także zagnieżdżone) muszą zostać pominięte przez parser.
+    private static String user(int i) {
+        return "{\"id\": " + i + ", \"name\": \"Leanne" + i + " Graham\", \"username\": \"Bret\","
+                + " \"address\": {\"street\": \"Kulas Light\", \"geo\": {\"lat\": \"-37.3159\", \"lng\": 81.1496}},"
+                + " \"email\": \"user" + i + "@test.com\", \"tags\": [1, [2, 3], {\"a\": null}],"
+                + " \"company\": {\"catchPhrase\": \"Multi-layered\", \"name\": \"Romaguera-Crona\", \"bs\": \"e-markets\"}}";
+    }
+
+    private static Map<String, String> queryParams(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                String[] keyValue = pair.split("=", 2);
+                params.put(keyValue[0], keyValue.length > 1 ? keyValue[1] : "");
+            }
+        }
+        return params;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.techcorp.employee.service;
 
 import com.techcorp.employee.dto.CompanyStatisticsDTO;
+import com.techcorp.employee.dto.SalaryPercentilesDTO;
 import com.techcorp.employee.exception.DuplicateEmailException;
 import com.techcorp.employee.exception.EmployeeNotFoundException;
 import com.techcorp.employee.model.Employee;
 import com.techcorp.employee.model.EmploymentStatus;
 import com.techcorp.employee.model.Position;
+import com.techcorp.employee.repository.EmployeeRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -23,7 +25,7 @@ class EmployeeServiceTest {
 
     @BeforeEach
     void setUp() {
-        employeeService = new EmployeeService();
+        employeeService = new EmployeeService(new EmployeeRepository());
         employee1 = new Employee("Jan", "Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMMER, 8000);
         employee2 = new Employee("Anna", "Nowak", "anna@test.com", "DataSoft", Position.MANAGER, 12000);
     }
@@ -48,11 +50,26 @@ class EmployeeServiceTest {
         assertEquals(employee1, found.get());
     }
 
+    @Test
+    void findEmployeeByEmail_shouldIgnoreCase() throws DuplicateEmailException {
+        employeeService.addEmployee(employee1);
+        assertTrue(employeeService.findEmployeeByEmail("JAN@Test.com").isPresent());
+    }
+
+    @Test
+    void addEmployee_shouldThrowException_whenEmailDiffersOnlyByCase() throws DuplicateEmailException {
+        employeeService.addEmployee(employee1);
+        Employee sameEmail = new Employee("Jan", "Nowy", "JAN@TEST.COM", "TechCorp", Position.INTERN, 3000);
+
+        assertThrows(DuplicateEmailException.class, () -> employeeService.addEmployee(sameEmail));
+        assertEquals(1, employeeService.getAllEmployees().size());
+    }
+
     @Test
     void updateEmployee_shouldUpdateFields() throws DuplicateEmailException {
         employeeService.addEmployee(employee1);
-        Employee updateData = new Employee("Janusz", "Kowalski", "jan@test.com", "NewCorp", Position.MANAGER, 15000);
-        updateData.setStatus(EmploymentStatus.ON_LEAVE);
+        Employee updateData = new Employee("Janusz", "Kowalski", "jan@test.com", "NewCorp", Position.MANAGER, 15000,
+                EmploymentStatus.ON_LEAVE);
 
         Employee updated = employeeService.updateEmployee("jan@test.com", updateData);
 
@@ -61,6 +78,21 @@ class EmployeeServiceTest {
         assertEquals(EmploymentStatus.ON_LEAVE, updated.getStatus());
     }
 
+    @Test
+    void updateEmployee_shouldSwapVersion_andLeavePreviousSnapshotIntact() throws DuplicateEmailException {
+        employeeService.addEmployee(employee1);
+        Employee before = employeeService.findEmployeeByEmail("jan@test.com").orElseThrow();
+
+        employeeService.updateEmployee("jan@test.com",
+                new Employee("Janusz", "Kowalski", "jan@test.com", "NewCorp", Position.MANAGER, 15000));
+
+        assertEquals(8000.0, before.getSalary());
+        assertEquals(Position.PROGRAMMER, before.getPosition());
+        Employee after = employeeService.findEmployeeByEmail("jan@test.com").orElseThrow();
+        assertNotSame(before, after);
+        assertEquals(15000.0, after.getSalary());
+    }
+
     @Test
     void deleteEmployee_shouldRemoveEmployee() throws DuplicateEmailException {
         employeeService.addEmployee(employee1);
@@ -86,10 +118,79 @@ class EmployeeServiceTest {
     @Test
     void getEmployeeCountByStatusString_shouldReturnCorrectMap() throws DuplicateEmailException {
         employeeService.addEmployee(employee1);
-        employee1.setStatus(EmploymentStatus.ON_LEAVE);
+        employeeService.updateEmployeeStatus("jan@test.com", EmploymentStatus.ON_LEAVE);
 
         Map<String, Long> counts = employeeService.getEmployeeCountByStatusString();
         assertEquals(1L, counts.get("ON_LEAVE"));
+        assertNull(counts.get("ACTIVE"));
+    }
+
+    @Test
+    void filterByCompany_shouldIgnoreCase_andFollowUpdates() throws DuplicateEmailException {
+        employeeService.addEmployee(employee1);
+        employeeService.addEmployee(employee2);
+        assertEquals(List.of(employee1), employeeService.filterByCompany("techcorp"));
+
+        Employee moved = new Employee("Jan", "Kowalski", "jan@test.com", "DataSoft", Position.PROGRAMMER, 8000);
+        employeeService.updateEmployee("jan@test.com", moved);
+
+        assertTrue(employeeService.filterByCompany("TechCorp").isEmpty());
+        assertEquals(2, employeeService.filterByCompany("DATASOFT").size());
+    }
+
+    @Test
+    void findEmployeesByStatus_shouldFollowStatusChanges() throws DuplicateEmailException {
+        employeeService.addEmployee(employee1);
+        employeeService.addEmployee(employee2);
+        employeeService.updateEmployeeStatus("anna@test.com", EmploymentStatus.TERMINATED);
+
+        assertEquals(List.of(employee1), employeeService.findEmployeesByStatus(EmploymentStatus.ACTIVE));
+        assertEquals(List.of(employee2), employeeService.findEmployeesByStatus(EmploymentStatus.TERMINATED));
+
+        employeeService.deleteEmployee("anna@test.com");
+        assertTrue(employeeService.findEmployeesByStatus(EmploymentStatus.TERMINATED).isEmpty());
+        assertEquals(Map.of(Position.PROGRAMMER, 1L), employeeService.countEmployeesByPosition());
+    }
+
+    @Test
+    void getAverageSalaryByPosition_shouldAverageOnlyPresentPositions() throws DuplicateEmailException {
+        employeeService.addEmployee(employee1);
+        employeeService.addEmployee(employee2);
+        employeeService.addEmployee(new Employee("Ewa", "Lis", "ewa@test.com", "TechCorp", Position.PROGRAMMER, 9000));
+
+        Map<Position, Double> averages = employeeService.getAverageSalaryByPosition();
+
+        assertEquals(Map.of(Position.PROGRAMMER, 8500.0, Position.MANAGER, 12000.0), averages);
+    }
+
+    @Test
+    void sortByLastName_shouldOrderIgnoringCase_thenByEmail() throws DuplicateEmailException {
+        employeeService.addEmployee(new Employee("Zofia", "nowak", "zofia@test.com", "TechCorp", Position.INTERN, 3000));
+        employeeService.addEmployee(employee2);
+        employeeService.addEmployee(employee1);
+        employeeService.addEmployee(new Employee("Adam", "Nowak", "adam@test.com", "TechCorp", Position.INTERN, 3000));
+
+        List<String> emails = employeeService.sortByLastName().stream().map(Employee::getEmail).toList();
+
+        assertEquals(List.of("jan@test.com", "adam@test.com", "anna@test.com", "zofia@test.com"), emails);
+    }
+
+    @Test
+    void getTopEarnersAndPercentiles_shouldUseRankings() throws DuplicateEmailException {
+        employeeService.addEmployee(employee1);
+        employeeService.addEmployee(employee2);
+        employeeService.addEmployee(new Employee("Ewa", "Lis", "ewa@test.com", "TechCorp", Position.PROGRAMMER, 9000));
+
+        assertEquals(List.of("anna@test.com"), employeeService.getTopEarners(null, 1).stream().map(Employee::getEmail).toList());
+        assertEquals(List.of("ewa@test.com", "jan@test.com"),
+                employeeService.getTopEarners("TechCorp", 5).stream().map(Employee::getEmail).toList());
+
+        List<SalaryPercentilesDTO> all = employeeService.getSalaryPercentiles(null, 50, 100);
+        assertEquals(List.of(Position.MANAGER, Position.PROGRAMMER), all.stream().map(SalaryPercentilesDTO::getPosition).toList());
+        assertEquals(Map.of("p50", 8000.0, "p100", 9000.0), all.get(1).getPercentiles());
+
+        assertThrows(IllegalArgumentException.class, () -> employeeService.getTopEarners(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> employeeService.getSalaryPercentiles(Position.CEO, 101));
     }
 
     @Test
@@ -103,4 +204,61 @@ class EmployeeServiceTest {
         assertEquals(8000.0, stats.get("TechCorp").getAverageSalary());
         assertNotNull(stats.get("DataSoft"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getCompanyStatistics_shouldFollowTopEarnerRemoval() throws DuplicateEmailException {
+        Employee boss = new Employee("Ewa", "Lis", "ewa@test.com", "TechCorp", Position.CEO, 25000);
+        employeeService.addEmployee(employee1);
+        employeeService.addEmployee(boss);
+
+        CompanyStatisticsDTO before = employeeService.getCompanyStatistics("techcorp").orElseThrow();
+        assertEquals(2, before.getEmployeeCount());
+        assertEquals("Ewa Lis", before.getTopEarnerName());
+        assertEquals(16500.0, employeeService.calculateAverageSalary("TECHCORP"));
+
+        employeeService.deleteEmployee("ewa@test.com");
+
+        CompanyStatisticsDTO after = employeeService.getCompanyStatistics("TechCorp").orElseThrow();
+        assertEquals(1, after.getEmployeeCount());
+        assertEquals("Jan Kowalski", after.getTopEarnerName());
+        assertEquals(8000.0, after.getHighestSalary());
+        assertEquals(8000.0, employeeService.calculateAverageSalary());
+    }
+
+    @Test
+    void getCompanyStatistics_shouldBeEmpty_whenLastEmployeeLeaves() throws DuplicateEmailException {
+        employeeService.addEmployee(employee1);
+        employeeService.updateEmployee("jan@test.com",
+                new Employee("Jan", "Kowalski", "jan@test.com", "NewCorp", Position.PROGRAMMER, 9000));
+
+        assertTrue(employeeService.getCompanyStatistics("TechCorp").isEmpty());
+        assertEquals(9000.0, employeeService.calculateAverageSalary("NewCorp"));
+    }
+
+    @Test
+    void upsertEmployees_shouldCreateOrReplace_andKeepAggregatesInSync() throws DuplicateEmailException {
+        employeeService.addEmployee(employee1);
+
+        boolean[] created = employeeService.upsertEmployees(List.of(
+                new Employee("Jan", "Kowalski", "JAN@test.com", "DataSoft", Position.MANAGER, 13000),
+                employee2));
+
+        assertArrayEquals(new boolean[]{false, true}, created);
+        assertEquals(2, employeeService.getAllEmployees().size());
+        assertTrue(employeeService.getCompanyStatistics("TechCorp").isEmpty());
+        assertEquals(2, employeeService.getCompanyStatistics("DataSoft").orElseThrow().getEmployeeCount());
+    }
+
+    @Test
+    void updateEmployeeStatuses_shouldReturnNull_forMissingEmails() throws DuplicateEmailException {
+        employeeService.addEmployee(employee1);
+
+        Employee[] updated = employeeService.updateEmployeeStatuses(
+                List.of("jan@test.com", "ghost@test.com"),
+                List.of(EmploymentStatus.ON_LEAVE, EmploymentStatus.TERMINATED));
+
+        assertEquals(EmploymentStatus.ON_LEAVE, updated[0].getStatus());
+        assertNull(updated[1]);
+        assertEquals(1L, employeeService.countEmployeesByStatus().get(EmploymentStatus.ON_LEAVE));
+    }
+}
@@ -1,9 +1,12 @@
 package com.techcorp.employee.service;
 
-import com.techcorp.employee.exception.DuplicateEmailException;
 import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.ImportError;
+import com.techcorp.employee.model.ImportErrorCode;
 import com.techcorp.employee.model.ImportSummary;
 import com.techcorp.employee.model.Position;
+import com.techcorp.employee.repository.EmployeeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,18 +16,22 @@ import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doThrow;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class ImportServiceTest {
@@ -44,37 +51,7 @@ class ImportServiceTest {
         String csvFilePath = "test-employees.csv";
         csvFile = tempDir.resolve(csvFilePath).toFile();
 
-        importService = new ImportService(mockEmployeeService, "classpath:" + csvFilePath) {
-            @Override
-            public ImportSummary importFromCsv() throws IOException {
-                int imported = 0;
-                List<String> errors = new ArrayList<>();
-                int lineNum = 0;
-                try (BufferedReader br = new BufferedReader(new FileReader(csvFile))) {
-                    if (br.readLine() != null) lineNum++;
-                    String line;
-                    while ((line = br.readLine()) != null) {
-                        lineNum++;
-                        if (line.trim().isEmpty()) continue;
-                        try {
-                            String[] data = line.split(",", -1);
-                            if (data.length < 6) throw new RuntimeException("Za mało kolumn");
-
-                            Employee e = new Employee(data[0], data[1], data[2], data[3], Position.valueOf(data[4].toUpperCase()), Double.parseDouble(data[5]));
-                            try {
-                                mockEmployeeService.addEmployee(e);
-                                imported++;
-                            } catch (DuplicateEmailException ex) {
-                                errors.add("Linia " + lineNum + ": Duplikat emaila '" + data[2] + "'.");
-                            }
-                        } catch (Exception e) {
-                            errors.add("Linia " + lineNum + ": Błąd danych - " + e.getMessage());
-                        }
-                    }
-                }
-                return new ImportSummary(imported, errors);
-            }
-        };
+        importService = new ImportService(mockEmployeeService, "file:" + csvFile.getPath(), 2, 3);
     }
 
     private void writeCsvContent(String content) throws IOException {
@@ -82,32 +59,35 @@ class ImportServiceTest {
     }
 
     @Test
-    void importFromCsv_shouldSucceed_withValidData() throws IOException, DuplicateEmailException {
+    void importFromCsv_shouldSucceed_withValidData() throws IOException {
         String content = "header\nJan,Kowalski,jan@test.com,TestCorp,PROGRAMMER,8000.0";
         writeCsvContent(content);
+        when(mockEmployeeService.addEmployees(anyList())).thenReturn(new boolean[]{true});
 
         ImportSummary summary = importService.importFromCsv();
 
         assertEquals(1, summary.getImportedCount());
         assertEquals(0, summary.getErrors().size());
+        verify(mockEmployeeService).addEmployees(List.of(
+                new Employee("Jan", "Kowalski", "jan@test.com", "TestCorp", Position.PROGRAMMER, 8000.0)));
     }
 
     @Test
-    void importFromCsv_shouldReportError_forDuplicate() throws IOException, DuplicateEmailException {
+    void importFromCsv_shouldReportError_forDuplicate() throws IOException {
         String content = "header\nJan,Kowalski,jan@test.com,TestCorp,PROGRAMMER,8000.0";
         writeCsvContent(content);
-
-        doThrow(new DuplicateEmailException("Duplicate")).when(mockEmployeeService).addEmployee(any(Employee.class));
+        when(mockEmployeeService.addEmployees(anyList())).thenReturn(new boolean[]{false});
 
         ImportSummary summary = importService.importFromCsv();
 
         assertEquals(0, summary.getImportedCount());
-        assertEquals(1, summary.getErrors().size());
+        assertEquals(List.of("Linia 2: Duplikat emaila 'jan@test.com'."), summary.getErrors());
     }
 
     @ParameterizedTest
     @CsvSource({
-            "Anna,Nowak,anna@test.com,TestCorp,UNKNOWN,5000.0, Linia 2: Błąd danych - No enum constant com.techcorp.employee.model.Position.UNKNOWN"
+            "Anna,Nowak,anna@test.com,TestCorp,UNKNOWN,5000.0, Linia 2: Błąd danych - Nieznane stanowisko: UNKNOWN",
+            "Anna,Nowak,anna@test.com,TestCorp,MANAGER,abc, Linia 2: Błąd formatu liczby dla wynagrodzenia."
     })
     void importFromCsv_shouldReportError_forInvalidData(String f, String l, String e, String c, String p, String s, String err) throws IOException {
         String content = "header\n" + String.join(",", f, l, e, c, p, s);
@@ -116,6 +96,135 @@ class ImportServiceTest {
         ImportSummary summary = importService.importFromCsv();
 
         assertEquals(0, summary.getImportedCount());
-        assertEquals(1, summary.getErrors().size());
+        assertEquals(List.of(err), summary.getErrors());
+        verify(mockEmployeeService, never()).addEmployees(anyList());
+    }
+
+    @Test
+    void importFromStream_shouldKeepLineNumbersAndOrder_acrossParallelBatches() throws IOException {
+        ImportService pipeline = new ImportService(new EmployeeService(new EmployeeRepository()), "classpath:unused.csv", 4, 2);
+        String content = String.join("\n",
+                "firstName,lastName,email,company,position,salary",
+                "Jan,Kowalski,jan@test.com,TestCorp,PROGRAMMER,8000",
+                "Anna,Nowak,anna@test.com,TestCorp,MANAGER,abc",
+                "",
+                "Ewa,Lis,ewa@test.com,TestCorp,INTERN,2000",
+                "Jan,Drugi,JAN@test.com,TestCorp,PROGRAMMER,9000",
+                "Piotr,Zaj,piotr@test.com,TestCorp,UNKNOWN,5000",
+                "Ola,Kot,ola@test.com,TestCorp,CEO,30000");
+
+        ImportSummary summary = pipeline.importFromStream(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(3, summary.getImportedCount());
+        assertEquals(6, summary.getProcessedRows());
+        assertEquals(List.of(
+                "Linia 3: Błąd formatu liczby dla wynagrodzenia.",
+                String.format("Linia 5: Ostrzeżenie - pensja (%.2f) niższa niż bazowa (%.2f) dla INTERN. Pracownik dodany.", 2000.0, 3000.0),
+                "Linia 6: Duplikat emaila 'JAN@test.com'.",
+                "Linia 7: Błąd danych - Nieznane stanowisko: UNKNOWN"
+        ), summary.getErrors());
+    }
+
+    @Test
+    void importFromStream_shouldRecordRowsAndErrorsByTypeInMetrics() throws IOException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ImportService pipeline = new ImportService(new EmployeeService(new EmployeeRepository()), "classpath:unused.csv", 2, 2, 1000, registry);
+        String content = String.join("\n",
+                "firstName,lastName,email,company,position,salary",
+                "Jan,Kowalski,jan@test.com,TestCorp,PROGRAMMER,8000",
+                "Anna,Nowak,anna@test.com,TestCorp,MANAGER,abc",
+                "Ewa,Lis,ewa@test.com,TestCorp,INTERN,2000",
+                "Jan,Drugi,JAN@test.com,TestCorp,PROGRAMMER,9000");
+
+        pipeline.importFromStream(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(4.0, registry.get("employee.import.rows").counter().count());
+        assertEquals(2.0, registry.get("employee.import.imported").counter().count());
+        assertEquals(1.0, registry.get("employee.import.errors").tag("type", "invalid_number").counter().count());
+        assertEquals(1.0, registry.get("employee.import.errors").tag("type", "salary_below_base").counter().count());
+        assertEquals(1.0, registry.get("employee.import.errors").tag("type", "duplicate_email").counter().count());
+        assertEquals(0.0, registry.get("employee.import.errors").tag("type", "unknown_position").counter().count());
+        assertEquals(1, registry.get("employee.import.duration").timer().count());
+    }
+
+    @Test
+    void importFromStream_shouldCapStoredErrors_butCountAll() throws IOException {
+        ImportService pipeline = new ImportService(new EmployeeService(new EmployeeRepository()), "classpath:unused.csv",
+                2, 2, 2, new SimpleMeterRegistry());
+        StringBuilder content = new StringBuilder("header");
+        for (int i = 0; i < 5; i++) {
+            content.append("\nJan,Kowalski,jan").append(i).append("@test.com,TestCorp,PROGRAMMER,abc");
+        }
+        content.append("\nZa,Malo,kolumn@test.com");
+        content.append("\nEwa,Lis,ewa@test.com,TestCorp,INTERN,2000");
+
+        ImportSummary summary = pipeline.importFromStream(new ByteArrayInputStream(content.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, summary.getImportedCount());
+        assertEquals(7, summary.getErrorCount());
+        assertEquals(5, summary.getOmittedErrorCount());
+        assertEquals(Map.of(ImportErrorCode.INVALID_NUMBER, 5L, ImportErrorCode.TOO_FEW_COLUMNS, 1L,
+                ImportErrorCode.SALARY_BELOW_BASE, 1L), summary.getErrorCounts());
+        ImportError first = summary.getErrorRecords().get(0);
+        assertEquals(2, first.lineNumber());
+        assertEquals("salary", first.field());
+        assertEquals(List.of("Linia 2: Błąd formatu liczby dla wynagrodzenia.",
+                "Linia 3: Błąd formatu liczby dla wynagrodzenia."), summary.getErrors());
+    }
+
+    @Test
+    void importFromStream_shouldCommitWholeBatches() throws IOException {
+        when(mockEmployeeService.addEmployees(anyList())).thenAnswer(invocation -> {
+            List<Employee> batch = invocation.getArgument(0);
+            boolean[] inserted = new boolean[batch.size()];
+            Arrays.fill(inserted, true);
+            return inserted;
+        });
+        ImportService pipeline = new ImportService(mockEmployeeService, "classpath:unused.csv", 2, 3);
+        StringBuilder content = new StringBuilder("header");
+        for (int i = 0; i < 7; i++) {
+            content.append("\nJan,Kowalski,jan").append(i).append("@test.com,TestCorp,PROGRAMMER,8000");
+        }
+
+        ImportSummary summary = pipeline.importFromStream(new ByteArrayInputStream(content.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(7, summary.getImportedCount());
+        verify(mockEmployeeService, times(3)).addEmployees(anyList());
+    }
+
+    @Test
+    void importFromFile_shouldMatchStreamImport_acrossMappingWindows() throws IOException {
+        String content = String.join("\n",
+                "firstName,lastName,email,company,position,salary",
+                "Jan,Kowalski,jan@test.com, TestCorp ,programmer,8000.50",
+                "Anna,Nowak,anna@test.com,TestCorp,MANAGER,1.2e4",
+                "Zofia,Wójcik,zofia@test.com,TestCorp,CEO,abc",
+                "",
+                "Ewa,Lis,ewa@test.com,TestCorp,INTERN,2000\r",
+                "Jan,Drugi,JAN@test.com,TestCorp,PROGRAMMER,9000",
+                "Piotr,Zaj,piotr@test.com,TestCorp,UNKNOWN,5000",
+                "Ola,Kot,ola@test.com,TestCorp,CEO,-5",
+                "Za,Malo,kolumn@test.com",
+                "Kuba,Mały,kuba@test.com,TestCorp,VICECEO,18000.125",
+                "Ala,Nowa,ala@test.com,TestCorp,PROGRAMMER,8000zł",
+                "Olek,Duzy,o@t.pl,T,CEO,12345678901234567890.5");
+        writeCsvContent(content);
+
+        EmployeeService fromStream = new EmployeeService(new EmployeeRepository());
+        ImportSummary expected = new ImportService(fromStream, "classpath:unused.csv", 2, 3)
+                .importFromStream(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        EmployeeService fromFile = new EmployeeService(new EmployeeRepository());
+        ImportSummary actual = new ImportService(fromFile, "classpath:unused.csv", 2, 3)
+                .importFromFile(csvFile.toPath(), 64);
+
+        assertEquals(expected.getImportedCount(), actual.getImportedCount());
+        assertEquals(expected.getProcessedRows(), actual.getProcessedRows());
+        assertEquals(expected.getErrors(), actual.getErrors());
+        for (Employee employee : fromStream.getAllEmployees()) {
+            Employee mapped = fromFile.findEmployeeByEmail(employee.getEmail()).orElseThrow();
+            assertEquals(employee.getSalary(), mapped.getSalary());
+            assertEquals(employee.getLastName(), mapped.getLastName());
+            assertEquals(employee.getCompany(), mapped.getCompany());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,76 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.exception.DuplicateEmailException;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.EmploymentStatus;
+import com.techcorp.employee.model.Position;
+import com.techcorp.employee.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatisticsCacheTest {
+
+    private EmployeeService employeeService;
+
+    @BeforeEach
+    void setUp() throws DuplicateEmailException {
+        employeeService = new EmployeeService(new EmployeeRepository());
+        employeeService.addEmployee(new Employee("Jan", "Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMMER, 8000));
+        employeeService.addEmployee(new Employee("Anna", "Nowak", "anna@test.com", "DataSoft", Position.MANAGER, 12000));
+    }
+
+    @Test
+    void statusChange_shouldInvalidateOnlyStatusCounts() {
+        employeeService.getEmployeeCountByStatusString();
+        employeeService.getEmployeeCountByPositionString();
+        employeeService.calculateAverageSalary("TechCorp");
+
+        employeeService.updateEmployeeStatus("jan@test.com", EmploymentStatus.ON_LEAVE);
+
+        assertEquals(1L, employeeService.getEmployeeCountByStatusString().get("ON_LEAVE"));
+        employeeService.getEmployeeCountByPositionString();
+        employeeService.calculateAverageSalary("TechCorp");
+
+        Map<String, Long> metrics = employeeService.getStatisticsCacheMetrics();
+        assertEquals(4L, metrics.get("misses"));
+        assertEquals(2L, metrics.get("hits"));
+        assertEquals(1L, metrics.get("invalidations"));
+    }
+
+    @Test
+    void salaryChange_shouldInvalidateGlobalAndCompanyAverage_butNotOtherCompanies() {
+        assertEquals(8000.0, employeeService.calculateAverageSalary("TechCorp"));
+        assertEquals(12000.0, employeeService.calculateAverageSalary("DataSoft"));
+        assertEquals(10000.0, employeeService.calculateAverageSalary());
+
+        employeeService.updateEmployee("jan@test.com",
+                new Employee("Jan", "Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMMER, 10000));
+
+        assertEquals(10000.0, employeeService.calculateAverageSalary(" techcorp "));
+        assertEquals(11000.0, employeeService.calculateAverageSalary());
+        assertEquals(12000.0, employeeService.calculateAverageSalary("DataSoft"));
+        assertEquals(1L, employeeService.getStatisticsCacheMetrics().get("hits"));
+        assertEquals(2L, employeeService.getStatisticsCacheMetrics().get("invalidations"));
+    }
+
+    @Test
+    void get_shouldEvictLeastRecentlyUsed_whenFull() {
+        StatisticsCache cache = new StatisticsCache(2);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(StatisticsCache.averageSalary("a"), loads::incrementAndGet);
+        cache.get(StatisticsCache.averageSalary("b"), loads::incrementAndGet);
+        cache.get(StatisticsCache.averageSalary("a"), loads::incrementAndGet);
+        cache.get(StatisticsCache.averageSalary("c"), loads::incrementAndGet);
+        cache.get(StatisticsCache.averageSalary("b"), loads::incrementAndGet);
+
+        assertEquals(4, loads.get());
+        assertEquals(2, cache.getEvictions());
+        assertEquals(2, cache.getSize());
+    }
+}